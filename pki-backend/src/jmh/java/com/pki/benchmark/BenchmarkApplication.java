@@ -0,0 +1,55 @@
+package com.pki.benchmark;
+
+import com.pki.PkiBackendApplication;
+import com.pki.dto.CertificateRequest;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application without the web server for benchmarks that need the real services:
+ * in-memory database migrated by Flyway, the default caches and key pool, quiet logging.
+ */
+final class BenchmarkApplication {
+
+    static final String ORGANIZATION = "Benchmark Org";
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        // Passed as command-line arguments so they override application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.pki=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--pki.master-key=benchmark-master-key",
+                // Skip the startup BCrypt calibration; logins are not benchmarked here
+                "--pki.password.bcrypt-strength=10"));
+        for (String property : extraProperties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(PkiBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(new String[0]));
+    }
+
+    static CertificateRequest request(String type, String commonName, String issuerSerialNumber, String keyAlgorithm) {
+        CertificateRequest request = new CertificateRequest();
+        request.setCommonName(commonName);
+        request.setOrganization(ORGANIZATION);
+        request.setOrganizationalUnit("Benchmarks");
+        request.setCountry("RS");
+        request.setState("Vojvodina");
+        request.setLocality("Novi Sad");
+        request.setType(type);
+        request.setValidityYears(1);
+        request.setIssuerSerialNumber(issuerSerialNumber);
+        request.setKeyAlgorithm(keyAlgorithm);
+        return request;
+    }
+}
@@ -0,0 +1,148 @@
+package com.pki.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the benchmarks single-threaded and at N threads, writes the merged JMH JSON results to
+ * {@code <output>/results.json} and compares them with a stored baseline.
+ *
+ * <p>Options ({@code --name=value}): include (regex, default all), threads (N, 0 = cores),
+ * forks, warmup and iterations (counts), time (seconds per iteration), output (directory),
+ * baseline (JSON file), threshold (percent a score may get worse before it counts as a
+ * regression), update-baseline (copy the results over the baseline instead of comparing) and
+ * fail-on-regression (exit with status 1 when any benchmark regressed).
+ */
+public final class BenchmarkRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String include = options.getOrDefault("include", "com\\.pki\\.benchmark\\..*");
+        int threads = Integer.parseInt(options.getOrDefault("threads", "0"));
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        int forks = Integer.parseInt(options.getOrDefault("forks", "1"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "5"));
+        int seconds = Integer.parseInt(options.getOrDefault("time", "2"));
+        Path output = Paths.get(options.getOrDefault("output", "target/jmh"));
+        Path baseline = Paths.get(options.getOrDefault("baseline", "src/jmh/baseline.json"));
+        double threshold = Double.parseDouble(options.getOrDefault("threshold", "10"));
+        Files.createDirectories(output);
+
+        ArrayNode merged = MAPPER.createArrayNode();
+        for (int threadCount : threads == 1 ? new int[]{1} : new int[]{1, threads}) {
+            Path result = output.resolve("results-t" + threadCount + ".json");
+            Options jmhOptions = new OptionsBuilder()
+                    .include(include)
+                    .threads(threadCount)
+                    .forks(forks)
+                    .warmupIterations(warmup)
+                    .warmupTime(TimeValue.seconds(seconds))
+                    .measurementIterations(iterations)
+                    .measurementTime(TimeValue.seconds(seconds))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.toString())
+                    .build();
+            new Runner(jmhOptions).run();
+            merged.addAll((ArrayNode) MAPPER.readTree(result.toFile()));
+        }
+        Path results = output.resolve("results.json");
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(results.toFile(), merged);
+        System.out.println("Results: " + results.toAbsolutePath());
+
+        if (Boolean.parseBoolean(options.getOrDefault("update-baseline", "false"))) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(results, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + baseline.toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline.toAbsolutePath() + "; run with --update-baseline to store one");
+            return;
+        }
+        int regressions = compare(scores((ArrayNode) MAPPER.readTree(baseline.toFile())), scores(merged), threshold);
+        if (regressions > 0 && Boolean.parseBoolean(options.getOrDefault("fail-on-regression", "false"))) {
+            System.exit(1);
+        }
+    }
+
+    private static int compare(Map<String, JsonNode> baseline, Map<String, JsonNode> current, double threshold) {
+        int regressions = 0;
+        System.out.printf("%n%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            double score = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "new", unit);
+                continue;
+            }
+            double previous = before.path("primaryMetric").path("score").asDouble();
+            double change = previous == 0 ? 0 : (score - previous) * 100.0 / previous;
+            // Throughput is better when higher, the time modes when lower
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double worse = higherIsBetter ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), previous, score, change, unit,
+                    regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%n%d of %d benchmarks regressed by more than %.1f%%%n", regressions, current.size(), threshold);
+        return regressions;
+    }
+
+    // Keyed by benchmark, parameters and thread count
+    private static Map<String, JsonNode> scores(ArrayNode results) {
+        Map<String, JsonNode> scores = new TreeMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.pki.benchmark.", ""));
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            if (!params.isEmpty()) {
+                key.append(params);
+            }
+            key.append(" t=").append(result.path("threads").asInt());
+            scores.put(key.toString(), result);
+        }
+        return scores;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.put(arg.substring(2), "true");
+            } else if (equals < arg.length() - 1) {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,51 @@
+package com.pki.benchmark;
+
+import com.pki.service.KeyManagementService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link KeyManagementService#getDekForOrganization} answered from the DEK cache (warm) and
+ * after the cache is cleared (cold: wrapped DEK read from the database and unwrapped under the KEK).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DekBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private KeyManagementService keyManagementService;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        keyManagementService = context.getBean(KeyManagementService.class);
+        // Creates and stores the organization's DEK
+        keyManagementService.getDekForOrganization(BenchmarkApplication.ORGANIZATION);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] warm() {
+        return keyManagementService.getDekForOrganization(BenchmarkApplication.ORGANIZATION);
+    }
+
+    @Benchmark
+    public byte[] cold() {
+        keyManagementService.evictAllDeks();
+        return keyManagementService.getDekForOrganization(BenchmarkApplication.ORGANIZATION);
+    }
+}
@@ -0,0 +1,59 @@
+package com.pki.benchmark;
+
+import com.pki.entity.Certificate;
+import com.pki.service.EncryptionService;
+import com.pki.service.KeyAlgorithms;
+import com.pki.service.KeyManagementService;
+import com.pki.service.PemUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AES-GCM encryption of a PEM private key under an organization DEK, as done for legacy
+ * (format 1) certificate contents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EncryptionBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private EncryptionService encryptionService;
+    private byte[] dek;
+    private String privateKeyPem;
+    private String encryptedPrivateKey;
+
+    @Setup
+    public void setup() throws Exception {
+        context = BenchmarkApplication.start();
+        encryptionService = context.getBean(EncryptionService.class);
+        dek = context.getBean(KeyManagementService.class).getDekForOrganization(BenchmarkApplication.ORGANIZATION);
+        privateKeyPem = PemUtils.convertPrivateKeyToPem(
+                KeyAlgorithms.generate(Certificate.KeyAlgorithm.RSA, 2048).getPrivate());
+        encryptedPrivateKey = encryptionService.encryptWithKey(dek, privateKeyPem);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String encryptWithKey() {
+        return encryptionService.encryptWithKey(dek, privateKeyPem);
+    }
+
+    @Benchmark
+    public String decryptWithKey() {
+        return encryptionService.decryptWithKey(dek, encryptedPrivateKey);
+    }
+}
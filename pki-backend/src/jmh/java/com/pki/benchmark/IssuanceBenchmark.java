@@ -0,0 +1,72 @@
+package com.pki.benchmark;
+
+import com.pki.entity.Certificate;
+import com.pki.service.CertificateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-certificate issuance through {@link CertificateService#issueCertificate}, including
+ * key generation (served by the key pool while it keeps up), signing, key encryption and the
+ * database save. Roots and intermediates are signed by an RSA root, end entities by an RSA
+ * intermediate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IssuanceBenchmark {
+
+    @Param({"SELF_SIGNED_ROOT", "INTERMEDIATE", "END_ENTITY"})
+    public String type;
+
+    @Param({"RSA", "EC"})
+    public String keyAlgorithm;
+
+    private ConfigurableApplicationContext context;
+    private CertificateService certificateService;
+    private String issuerSerialNumber;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        certificateService = context.getBean(CertificateService.class);
+
+        Certificate root = certificateService.issueCertificate(
+                BenchmarkApplication.request("SELF_SIGNED_ROOT", "Benchmark Root", null, "RSA"));
+        Certificate intermediate = certificateService.issueCertificate(
+                BenchmarkApplication.request("INTERMEDIATE", "Benchmark Intermediate", root.getSerialNumber(), "RSA"));
+        switch (type) {
+            case "INTERMEDIATE":
+                issuerSerialNumber = root.getSerialNumber();
+                break;
+            case "END_ENTITY":
+                issuerSerialNumber = intermediate.getSerialNumber();
+                break;
+            default:
+                issuerSerialNumber = null;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Certificate issue() {
+        return certificateService.issueCertificate(BenchmarkApplication.request(
+                type, "bench-" + sequence.incrementAndGet(), issuerSerialNumber, keyAlgorithm));
+    }
+}
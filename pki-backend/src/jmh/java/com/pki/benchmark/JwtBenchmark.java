@@ -0,0 +1,58 @@
+package com.pki.benchmark;
+
+import com.pki.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token signing and verification. {@code validateCached} is the steady state of a client
+ * reusing its token; {@code generateAndValidate} always misses the verified-token cache, so its
+ * cost minus {@code generate} is a full signature and expiry check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        tokenProvider = context.getBean(JwtTokenProvider.class);
+        token = tokenProvider.generateAccessToken("admin");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generate() {
+        return tokenProvider.generateAccessToken("admin");
+    }
+
+    @Benchmark
+    public Optional<Claims> validateCached() {
+        return tokenProvider.verify(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> generateAndValidate() {
+        return tokenProvider.verify(tokenProvider.generateAccessToken("admin"));
+    }
+}
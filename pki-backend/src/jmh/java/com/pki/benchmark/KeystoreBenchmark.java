@@ -0,0 +1,56 @@
+package com.pki.benchmark;
+
+import com.pki.entity.Certificate;
+import com.pki.service.CertificateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keystore construction for an end-entity certificate with its full chain, bypassing the
+ * built-keystore cache that normally serves repeated downloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KeystoreBenchmark {
+
+    @Param({"PKCS12", "JKS"})
+    public String format;
+
+    private ConfigurableApplicationContext context;
+    private CertificateService certificateService;
+    private String serialNumber;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        certificateService = context.getBean(CertificateService.class);
+
+        Certificate root = certificateService.issueCertificate(
+                BenchmarkApplication.request("SELF_SIGNED_ROOT", "Benchmark Root", null, "RSA"));
+        Certificate intermediate = certificateService.issueCertificate(
+                BenchmarkApplication.request("INTERMEDIATE", "Benchmark Intermediate", root.getSerialNumber(), "RSA"));
+        serialNumber = certificateService.issueCertificate(BenchmarkApplication.request(
+                "END_ENTITY", "Benchmark Leaf", intermediate.getSerialNumber(), "RSA")).getSerialNumber();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] createKeystore() {
+        return certificateService.createKeystore(serialNumber, format);
+    }
+}
@@ -0,0 +1,80 @@
+package com.pki.benchmark;
+
+import com.pki.entity.Certificate;
+import com.pki.service.KeyAlgorithms;
+import com.pki.service.PemUtils;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of stored certificates and private keys: the legacy PEM text (format 1) next to the
+ * raw DER (format 2) the content service now stores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PemBenchmark {
+
+    @Param({"RSA", "EC"})
+    public String keyAlgorithm;
+
+    private String certificatePem;
+    private String privateKeyPem;
+    private byte[] certificateDer;
+    private byte[] privateKeyDer;
+
+    @Setup
+    public void setup() throws Exception {
+        Certificate.KeyAlgorithm algorithm = KeyAlgorithms.parse(keyAlgorithm);
+        KeyPair keyPair = KeyAlgorithms.generate(algorithm, KeyAlgorithms.defaultKeySize(algorithm));
+        X500Name name = new X500Name("CN=Benchmark, O=" + BenchmarkApplication.ORGANIZATION);
+        long now = System.currentTimeMillis();
+        JcaX509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(name, BigInteger.ONE,
+                new Date(now), new Date(now + TimeUnit.DAYS.toMillis(365)), name, keyPair.getPublic());
+        X509Certificate certificate = new JcaX509CertificateConverter().setProvider("BC").getCertificate(
+                builder.build(new JcaContentSignerBuilder(KeyAlgorithms.signatureAlgorithm(keyPair.getPrivate()))
+                        .setProvider("BC").build(keyPair.getPrivate())));
+
+        certificatePem = PemUtils.convertToPem(certificate);
+        privateKeyPem = PemUtils.convertPrivateKeyToPem(keyPair.getPrivate());
+        certificateDer = certificate.getEncoded();
+        privateKeyDer = keyPair.getPrivate().getEncoded();
+    }
+
+    @Benchmark
+    public PrivateKey loadPrivateKeyFromPem() throws Exception {
+        return PemUtils.loadPrivateKeyFromPem(privateKeyPem);
+    }
+
+    @Benchmark
+    public X509Certificate loadCertificateFromPem() throws Exception {
+        return PemUtils.loadCertificateFromPem(certificatePem);
+    }
+
+    @Benchmark
+    public PrivateKey loadPrivateKeyFromDer() throws Exception {
+        return PemUtils.loadPrivateKeyFromDer(privateKeyDer);
+    }
+
+    @Benchmark
+    public X509Certificate loadCertificateFromDer() throws Exception {
+        return PemUtils.loadCertificateFromDer(certificateDer);
+    }
+}
@@ -0,0 +1,117 @@
+package com.pki.benchmark;
+
+import com.pki.entity.Certificate;
+import com.pki.service.RevocationIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status lookups against a {@link RevocationIndex} holding {@code entries} certificates with random
+ * 160-bit serials. Setup also measures the index's retained heap (heap in use after a full GC,
+ * before and after the certificates are added) and prints it per certificate next to the table's
+ * own estimate, which is where the README's bytes-per-certificate figure comes from.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RevocationIndexBenchmark {
+
+    private static final int SAMPLE_SIZE = 4096;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int ISSUERS = 16;
+
+    @Param({"1000000"})
+    public int entries;
+
+    private ConfigurableApplicationContext context;
+    private RevocationIndex revocationIndex;
+    private String[] knownSerials;
+    private String[] unknownSerials;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        revocationIndex = context.getBean(RevocationIndex.class);
+        int existing = ((Number) revocationIndex.getMetrics().get("entries")).intValue();
+
+        SplittableRandom random = new SplittableRandom(42);
+        knownSerials = new String[SAMPLE_SIZE];
+        unknownSerials = new String[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            unknownSerials[i] = randomSerial(random);
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plusYears(1);
+
+        long heapBefore = usedHeapAfterGc();
+        List<Certificate> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < entries; i++) {
+            Certificate certificate = new Certificate();
+            certificate.setSerialNumber(randomSerial(random));
+            certificate.setIssuerSerialNumber("issuer-" + (i % ISSUERS));
+            certificate.setExpiresAt(expiresAt);
+            certificate.setRevoked(i % 100 == 0);
+            if (i < SAMPLE_SIZE) {
+                knownSerials[i] = certificate.getSerialNumber();
+            }
+            batch.add(certificate);
+            if (batch.size() == BATCH_SIZE || i == entries - 1) {
+                revocationIndex.onIssued(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        long retained = usedHeapAfterGc() - heapBefore;
+
+        Map<String, Object> metrics = revocationIndex.getMetrics();
+        int added = ((Number) metrics.get("entries")).intValue() - existing;
+        System.out.printf("%nRevocation index footprint: %d certificates, %.1f MB retained, %.1f bytes per certificate "
+                        + "(table estimate %.1f bytes per entry, capacity %s)%n",
+                added, retained / 1e6, (double) retained / added, metrics.get("bytesPerEntry"), metrics.get("capacity"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RevocationIndex.Status knownSerial() {
+        return revocationIndex.getStatus(knownSerials[ThreadLocalRandom.current().nextInt(SAMPLE_SIZE)]);
+    }
+
+    @Benchmark
+    public RevocationIndex.Status unknownSerial() {
+        return revocationIndex.getStatus(unknownSerials[ThreadLocalRandom.current().nextInt(SAMPLE_SIZE)]);
+    }
+
+    // Same shape as issued serials: non-negative, up to 160 bits
+    private static String randomSerial(SplittableRandom random) {
+        byte[] bytes = new byte[20];
+        random.nextBytes(bytes);
+        return new BigInteger(1, bytes).toString();
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
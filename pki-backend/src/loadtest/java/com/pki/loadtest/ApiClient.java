@@ -0,0 +1,91 @@
+package com.pki.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.time.Duration;
+
+/**
+ * HTTPS client for the application under test, over loopback only. Trusts exactly the
+ * certificate the embedded server presents, read from the server's own key store.
+ */
+final class ApiClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    ApiClient(ApplicationContext context) throws Exception {
+        Environment environment = context.getEnvironment();
+        this.baseUrl = "https://localhost:" + environment.getProperty("local.server.port")
+                + environment.getProperty("server.servlet.context-path", "");
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .sslContext(trustServerCertificate(context))
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    HttpResponse<byte[]> get(String path, String token) throws IOException, InterruptedException {
+        return httpClient.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    HttpResponse<byte[]> post(String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher publisher = body == null ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+        return httpClient.send(request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(publisher)
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    JsonNode json(HttpResponse<byte[]> response) throws IOException {
+        return mapper.readTree(response.body());
+    }
+
+    static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static SSLContext trustServerCertificate(ApplicationContext context) throws Exception {
+        Environment environment = context.getEnvironment();
+        KeyStore serverStore = KeyStore.getInstance(environment.getProperty("server.ssl.key-store-type", "PKCS12"));
+        char[] password = environment.getProperty("server.ssl.key-store-password", "").toCharArray();
+        try (InputStream in = context.getResource(environment.getRequiredProperty("server.ssl.key-store")).getInputStream()) {
+            serverStore.load(in, password);
+        }
+        Certificate serverCertificate = serverStore.getCertificate(environment.getRequiredProperty("server.ssl.key-alias"));
+
+        KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        trustStore.load(null, null);
+        trustStore.setCertificateEntry("server", serverCertificate);
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(trustStore);
+
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+        return sslContext;
+    }
+}
@@ -0,0 +1,142 @@
+package com.pki.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microseconds) and error counts. Workers record into
+ * {@link Recorder}s; {@link #interval} drains them once per reporting interval, appending the
+ * interval histograms to an HdrHistogram log tagged by endpoint and adding them to the totals
+ * once the warmup is over.
+ */
+final class LatencyReport {
+
+    private static final class EndpointStats {
+        final Recorder recorder = new Recorder(3);
+        final Histogram total = new Histogram(3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        Histogram interval;
+    }
+
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final HistogramLogWriter logWriter;
+    private long measuredSince;
+    private long measuredUntil;
+
+    LatencyReport(Path logFile) throws FileNotFoundException {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        logWriter = new HistogramLogWriter(logFile.toFile());
+    }
+
+    /**
+     * Starts the log at the beginning of the run; interval timestamps are relative to it.
+     */
+    synchronized void begin() {
+        long now = System.currentTimeMillis();
+        logWriter.setBaseTime(now);
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(now);
+        logWriter.outputLegend();
+        for (EndpointStats endpoint : stats.values()) {
+            endpoint.interval = endpoint.recorder.getIntervalHistogram(endpoint.interval);
+        }
+        measuredSince = now;
+    }
+
+    void record(Operation operation, long latencyNanos, boolean success) {
+        EndpointStats endpoint = stats.get(operation);
+        endpoint.recorder.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (!success) {
+            endpoint.errors.increment();
+        }
+    }
+
+    void skipped(Operation operation) {
+        stats.get(operation).skipped.increment();
+    }
+
+    /**
+     * Drains the recorders; during the warmup the intervals are logged but not counted.
+     */
+    synchronized void interval(boolean measuring) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            endpoint.interval = endpoint.recorder.getIntervalHistogram(endpoint.interval);
+            if (endpoint.interval.getTotalCount() == 0) {
+                continue;
+            }
+            endpoint.interval.setTag(entry.getKey().getKey());
+            logWriter.outputIntervalHistogram(endpoint.interval);
+            if (measuring) {
+                endpoint.total.add(endpoint.interval);
+            }
+        }
+        if (!measuring) {
+            measuredSince = now;
+            for (EndpointStats endpoint : stats.values()) {
+                endpoint.errors.reset();
+                endpoint.skipped.reset();
+            }
+        }
+        measuredUntil = now;
+    }
+
+    long totalRequests() {
+        return stats.values().stream().mapToLong(endpoint -> endpoint.total.getTotalCount()).sum();
+    }
+
+    long totalErrors() {
+        return stats.values().stream().mapToLong(endpoint -> endpoint.errors.sum()).sum();
+    }
+
+    /**
+     * Writes one percentile distribution (.hgrm, in milliseconds) per endpoint and prints the summary.
+     */
+    synchronized void write(Path outputDir, PrintStream out) throws FileNotFoundException {
+        double seconds = Math.max(1, measuredUntil - measuredSince) / 1000.0;
+        out.printf("%n%-44s %9s %7s %8s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(3);
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            if (endpoint.total.getTotalCount() == 0 && endpoint.skipped.sum() == 0) {
+                continue;
+            }
+            all.add(endpoint.total);
+            printRow(out, entry.getKey().getEndpoint(), endpoint.total, endpoint.errors.sum(), seconds);
+            if (endpoint.skipped.sum() > 0) {
+                out.printf("%-44s %9d skipped (nothing left to revoke)%n", "", endpoint.skipped.sum());
+            }
+            try (PrintStream hgrm = new PrintStream(outputDir.resolve(entry.getKey().getKey() + ".hgrm").toFile())) {
+                endpoint.total.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        printRow(out, "all", all, totalErrors(), seconds);
+        logWriter.close();
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf("%-44s %9d %7d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(95)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
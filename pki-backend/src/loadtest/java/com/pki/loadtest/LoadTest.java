@@ -0,0 +1,377 @@
+package com.pki.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pki.PkiBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application in-process on a random HTTPS port with the in-memory database and drives
+ * a weighted mix of API requests at it over loopback, then reports throughput and latency
+ * percentiles per endpoint.
+ *
+ * <p>With a target rate the requests follow a fixed schedule shared by all workers, and latency is
+ * measured from each request's scheduled start, so time spent queued behind slow requests is
+ * counted (no coordinated omission). With {@code --rate=0} every worker sends back to back.
+ *
+ * <p>Options ({@code --name=value}): rate (requests/s, 0 = unpaced), concurrency (workers),
+ * duration and warmup (seconds), mix ({@code op:weight,...} over login, refresh, list, get,
+ * issue, revoke, download), seed (end-entity certificates created up front), output (directory)
+ * and max-error-rate (fraction of failed requests above which the run exits with status 1).
+ * Any other option is passed to the application as a property.
+ */
+public final class LoadTest {
+
+    private static final Set<String> OPTIONS = Set.of(
+            "rate", "concurrency", "duration", "warmup", "mix", "seed", "output", "max-error-rate");
+    private static final String DEFAULT_MIX = "login:1,refresh:2,list:20,get:40,issue:5,revoke:2,download:10";
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "admin123";
+    private static final String ORGANIZATION = "Load Test Org";
+
+    private final ApiClient client;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final LatencyReport report;
+
+    private String intermediateSerial;
+    private final List<String> stableSerials = new ArrayList<>();
+    private final ConcurrentLinkedQueue<String> revocableSerials = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private LoadTest(ApiClient client, Map<Operation, Integer> mix, LatencyReport report) {
+        this.client = client;
+        this.report = report;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.pki=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--pki.master-key=load-test-master-key",
+                // Every worker logs in as the same user from the same address
+                "--pki.login.user.capacity=1000000",
+                "--pki.login.user.refill-per-minute=1000000",
+                "--pki.login.ip.capacity=1000000",
+                "--pki.login.ip.refill-per-minute=1000000"));
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            if (OPTIONS.contains(name)) {
+                options.put(name, arg.substring(equals + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        double rate = Double.parseDouble(options.getOrDefault("rate", "100"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int seed = Integer.parseInt(options.getOrDefault("seed", "50"));
+        double maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+        Path output = Paths.get(options.getOrDefault("output", "target/loadtest"));
+        Files.createDirectories(output);
+
+        int exitCode;
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PkiBackendApplication.class)
+                .run(applicationArgs.toArray(new String[0]));
+        try {
+            LatencyReport report = new LatencyReport(output.resolve("latency.hlog"));
+            LoadTest loadTest = new LoadTest(new ApiClient(context), mix, report);
+            loadTest.seed(seed);
+
+            System.out.printf("Running %s for %ds (+%ds warmup) at %s with %d workers%n", mix, duration, warmup,
+                    rate > 0 ? rate + " req/s" : "full speed", concurrency);
+            loadTest.run(rate, concurrency, warmup, duration);
+            report.write(output, System.out);
+            System.out.println("Histograms: " + output.toAbsolutePath());
+
+            long requests = report.totalRequests();
+            double errorRate = requests == 0 ? 1.0 : (double) report.totalErrors() / requests;
+            exitCode = errorRate > maxErrorRate ? 1 : 0;
+            if (exitCode != 0) {
+                System.out.printf("Error rate %.2f%% exceeds %.2f%%%n", errorRate * 100, maxErrorRate * 100);
+            }
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * Creates a root and an intermediate, then {@code count} end-entity certificates to read and
+     * download and as many again for the revoke operation.
+     */
+    private void seed(int count) throws Exception {
+        String token = login().accessToken;
+        String rootSerial = serialOf(expectSuccess(client.post("/certificates", token,
+                certificateRequest("SELF_SIGNED_ROOT", "Load Test Root", null))));
+        intermediateSerial = serialOf(expectSuccess(client.post("/certificates", token,
+                certificateRequest("INTERMEDIATE", "Load Test Intermediate", rootSerial))));
+        stableSerials.addAll(issueBatch(token, count));
+        revocableSerials.addAll(issueBatch(token, count));
+    }
+
+    private List<String> issueBatch(String token, int count) throws Exception {
+        List<String> serials = new ArrayList<>();
+        while (serials.size() < count) {
+            List<Map<String, Object>> certificates = new ArrayList<>();
+            for (int i = 0; i < Math.min(500, count - serials.size()); i++) {
+                certificates.add(certificateRequest("END_ENTITY", "seed-" + sequence.incrementAndGet(), intermediateSerial));
+            }
+            JsonNode result = client.json(expectSuccess(client.post("/certificates/batch", token,
+                    Map.of("certificates", certificates))));
+            for (JsonNode item : result.path("results")) {
+                if (item.path("success").asBoolean()) {
+                    serials.add(item.path("certificate").path("serialNumber").asText());
+                }
+            }
+        }
+        return serials;
+    }
+
+    private void run(double rate, int concurrency, int warmupSeconds, int durationSeconds) throws Exception {
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        AtomicLong ticket = new AtomicLong();
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            sessions.add(login());
+        }
+
+        report.begin();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Session session : sessions) {
+            futures.add(workers.submit(() -> {
+                while (true) {
+                    long intended;
+                    if (intervalNanos > 0) {
+                        intended = start + ticket.getAndIncrement() * intervalNanos;
+                        if (intended >= end) {
+                            break;
+                        }
+                        long wait = intended - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    } else {
+                        intended = System.nanoTime();
+                        if (intended >= end) {
+                            break;
+                        }
+                    }
+                    execute(pick(), session, intended);
+                }
+                return null;
+            }));
+        }
+
+        // One interval histogram per second; the warmup intervals are logged but not counted
+        for (int second = 1; second <= warmupSeconds + durationSeconds; second++) {
+            long tick = start + TimeUnit.SECONDS.toNanos(second);
+            while (System.nanoTime() < tick) {
+                LockSupport.parkNanos(tick - System.nanoTime());
+            }
+            report.interval(second > warmupSeconds);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+        report.interval(durationSeconds > 0);
+    }
+
+    private void execute(Operation operation, Session session, long intendedStart) {
+        try {
+            if (session.stale) {
+                session.renew(login());
+            }
+            HttpResponse<byte[]> response;
+            switch (operation) {
+                case LOGIN:
+                    response = client.post("/auth/login", null, Map.of("username", USERNAME, "password", PASSWORD));
+                    if (ApiClient.isSuccess(response)) {
+                        session.renew(client.json(response));
+                    }
+                    break;
+                case REFRESH:
+                    response = client.post("/auth/refresh", null, Map.of("refreshToken", session.refreshToken));
+                    if (ApiClient.isSuccess(response)) {
+                        session.renew(client.json(response));
+                    } else {
+                        session.stale = true;
+                    }
+                    break;
+                case LIST:
+                    response = client.get("/certificates?limit=20", session.accessToken);
+                    break;
+                case GET:
+                    response = client.get("/certificates/" + randomStableSerial(), session.accessToken);
+                    break;
+                case ISSUE:
+                    response = client.post("/certificates", session.accessToken, certificateRequest(
+                            "END_ENTITY", "load-" + sequence.incrementAndGet(), intermediateSerial));
+                    if (ApiClient.isSuccess(response)) {
+                        revocableSerials.add(serialOf(response));
+                    }
+                    break;
+                case REVOKE:
+                    String serial = revocableSerials.poll();
+                    if (serial == null) {
+                        report.skipped(operation);
+                        return;
+                    }
+                    response = client.post("/certificates/" + serial + "/revoke", session.accessToken, null);
+                    break;
+                case DOWNLOAD:
+                    response = client.get("/certificates/" + randomStableSerial() + "/download/pkcs12", session.accessToken);
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled operation " + operation);
+            }
+            report.record(operation, System.nanoTime() - intendedStart, ApiClient.isSuccess(response));
+            // Expired or revoked access token: log in again before the next request
+            if (response.statusCode() == 401 || response.statusCode() == 403) {
+                session.stale = true;
+            }
+        } catch (Exception e) {
+            report.record(operation, System.nanoTime() - intendedStart, false);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private String randomStableSerial() {
+        return stableSerials.get(ThreadLocalRandom.current().nextInt(stableSerials.size()));
+    }
+
+    private Session login() throws Exception {
+        // Logins made during setup retry while password hashing is saturated
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<byte[]> response = client.post("/auth/login", null,
+                    Map.of("username", USERNAME, "password", PASSWORD));
+            if (ApiClient.isSuccess(response)) {
+                Session session = new Session();
+                session.renew(client.json(response));
+                return session;
+            }
+            if (attempt >= 20 || (response.statusCode() != 429 && response.statusCode() != 503)) {
+                throw new IllegalStateException("Login failed with HTTP " + response.statusCode());
+            }
+            Thread.sleep(250);
+        }
+    }
+
+    private String serialOf(HttpResponse<byte[]> response) throws IOException {
+        return client.json(response).path("serialNumber").asText();
+    }
+
+    private static HttpResponse<byte[]> expectSuccess(HttpResponse<byte[]> response) {
+        if (!ApiClient.isSuccess(response)) {
+            throw new IllegalStateException("Setup request failed with HTTP " + response.statusCode() + ": "
+                    + new String(response.body()));
+        }
+        return response;
+    }
+
+    private static Map<String, Object> certificateRequest(String type, String commonName, String issuerSerial) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("commonName", commonName);
+        request.put("organization", ORGANIZATION);
+        request.put("organizationalUnit", "Load Tests");
+        request.put("country", "RS");
+        request.put("state", "Vojvodina");
+        request.put("locality", "Novi Sad");
+        request.put("type", type);
+        request.put("validityYears", 1);
+        if (issuerSerial != null) {
+            request.put("issuerSerialNumber", issuerSerial);
+        }
+        return request;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            if (weight > 0) {
+                weights.put(Operation.fromKey(parts[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty operation mix: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * One worker's tokens; refresh rotates them, a rejected request marks them for a fresh login.
+     */
+    private static final class Session {
+        String accessToken;
+        String refreshToken;
+        boolean stale;
+
+        void renew(JsonNode tokens) {
+            accessToken = tokens.path("accessToken").asText();
+            refreshToken = tokens.path("refreshToken").asText();
+            stale = false;
+        }
+
+        void renew(Session other) {
+            accessToken = other.accessToken;
+            refreshToken = other.refreshToken;
+            stale = false;
+        }
+    }
+}
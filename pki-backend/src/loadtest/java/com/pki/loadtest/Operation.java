@@ -0,0 +1,40 @@
+package com.pki.loadtest;
+
+/**
+ * Requests the load test can issue, each reported as its own endpoint.
+ */
+enum Operation {
+
+    LOGIN("login", "POST /auth/login"),
+    REFRESH("refresh", "POST /auth/refresh"),
+    LIST("list", "GET /certificates"),
+    GET("get", "GET /certificates/{serial}"),
+    ISSUE("issue", "POST /certificates"),
+    REVOKE("revoke", "POST /certificates/{serial}/revoke"),
+    DOWNLOAD("download", "GET /certificates/{serial}/download/pkcs12");
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,76 @@
+package com.pki.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${pki.batch.threads:0}")
+    private int batchThreads;
+
+    @Value("${pki.batch.queue-capacity:2000}")
+    private int batchQueueCapacity;
+
+    @Value("${pki.jobs.threads:0}")
+    private int jobThreads;
+
+    @Value("${pki.jobs.queue-capacity:100}")
+    private int jobQueueCapacity;
+
+    /**
+     * CPU-sized pool for batch keygen and signing. When the queue is full the submitting
+     * request thread runs the task itself, which throttles concurrent batches.
+     */
+    @Bean(name = "batchIssuanceExecutor", destroyMethod = "shutdown")
+    public ExecutorService batchIssuanceExecutor() {
+        int threads = batchThreads > 0 ? batchThreads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchQueueCapacity),
+                namedThreadFactory("batch-issuance-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Pool for asynchronous issuance jobs. A full queue rejects the submission so the
+     * controller can answer 429 instead of tying up a request thread.
+     */
+    @Bean(name = "issuanceJobExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor issuanceJobExecutor() {
+        int threads = jobThreads > 0 ? jobThreads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(jobQueueCapacity),
+                namedThreadFactory("issuance-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Single thread: CRL regeneration is serialized and coalesced per issuer by CrlService
+    @Bean(name = "crlExecutor", destroyMethod = "shutdown")
+    public ExecutorService crlExecutor() {
+        return Executors.newSingleThreadExecutor(namedThreadFactory("crl-"));
+    }
+
+    // Single thread: one background content migration pass at a time
+    @Bean(name = "contentMigrationExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService contentMigrationExecutor() {
+        return Executors.newSingleThreadExecutor(namedThreadFactory("content-migration-"));
+    }
+
+    static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
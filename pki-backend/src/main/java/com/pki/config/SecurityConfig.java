@@ -1,6 +1,11 @@
 package com.pki.config;
 
+import com.pki.security.BoundedPasswordEncoder;
+import com.pki.security.CustomUserDetailsService;
 import com.pki.security.JwtAuthenticationFilter;
+import com.pki.security.MetricsScrapeTokenFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -12,9 +17,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -28,18 +30,48 @@ import java.util.Arrays;
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
     @Autowired
-    private UserDetailsService userDetailsService;
+    private CustomUserDetailsService userDetailsService;
 
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private MetricsScrapeTokenFilter metricsScrapeTokenFilter;
+
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
+    // 0 calibrates the cost at startup to fit target-hash-ms
+    @Value("${pki.password.bcrypt-strength:0}")
+    private int bcryptStrength;
+
+    @Value("${pki.password.target-hash-ms:250}")
+    private long targetHashMillis;
+
+    @Value("${pki.password.min-strength:10}")
+    private int minStrength;
+
+    @Value("${pki.password.max-strength:14}")
+    private int maxStrength;
+
+    // 0 allows half the cores to hash passwords at once
+    @Value("${pki.password.max-concurrent:0}")
+    private int maxConcurrentHashes;
+
+    @Value("${pki.password.wait-ms:2000}")
+    private long hashWaitMillis;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int strength = bcryptStrength > 0 ? bcryptStrength
+                : BoundedPasswordEncoder.calibrateStrength(targetHashMillis, minStrength, maxStrength);
+        int maxConcurrent = maxConcurrentHashes > 0 ? maxConcurrentHashes
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        logger.info("Password hashing: BCrypt cost {}, at most {} concurrent", strength, maxConcurrent);
+        return new BoundedPasswordEncoder(strength, maxConcurrent, hashWaitMillis);
     }
 
     @Bean
@@ -47,6 +79,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -62,12 +95,16 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/auth/**").permitAll()
+                .requestMatchers("/crl/**").permitAll()
+                .requestMatchers("/ocsp/**", "/ocsp").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAnyRole("ADMIN", "METRICS")
                 .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(metricsScrapeTokenFilter, JwtAuthenticationFilter.class);
 
         // For H2 Console
         http.headers(headers -> headers
@@ -83,6 +120,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,144 @@
+package com.pki.controller;
+
+import com.pki.dto.MasterKeyRotationRequest;
+import com.pki.security.BoundedPasswordEncoder;
+import com.pki.security.JwtAuthenticationFilter;
+import com.pki.security.JwtTokenProvider;
+import com.pki.security.LoginThrottle;
+import com.pki.service.BatchIssuanceService;
+import com.pki.service.CertificateChainCache;
+import com.pki.service.CertificateContentMigrator;
+import com.pki.service.CertificateContentService;
+import com.pki.service.CertificateExportService;
+import com.pki.service.CrlService;
+import com.pki.service.IssuanceJobService;
+import com.pki.service.IssuerContextCache;
+import com.pki.service.KeyManagementService;
+import com.pki.service.KeyPairPool;
+import com.pki.service.KeystoreArtifactCache;
+import com.pki.service.MasterKeyHolder;
+import com.pki.service.OcspService;
+import com.pki.service.RefreshTokenService;
+import com.pki.service.RevocationIndex;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    @Autowired
+    private MasterKeyHolder masterKeyHolder;
+
+    @Autowired
+    private KeyManagementService keyManagementService;
+
+    @Autowired
+    private KeyPairPool keyPairPool;
+
+    @Autowired
+    private IssuerContextCache issuerContextCache;
+
+    @Autowired
+    private BatchIssuanceService batchIssuanceService;
+
+    @Autowired
+    private IssuanceJobService issuanceJobService;
+
+    @Autowired
+    private CertificateContentService certificateContentService;
+
+    @Autowired
+    private CrlService crlService;
+
+    @Autowired
+    private OcspService ocspService;
+
+    @Autowired
+    private RevocationIndex revocationIndex;
+
+    @Autowired
+    private CertificateChainCache certificateChainCache;
+
+    @Autowired
+    private CertificateContentMigrator certificateContentMigrator;
+
+    @Autowired
+    private CertificateExportService certificateExportService;
+
+    @Autowired
+    private KeystoreArtifactCache keystoreArtifactCache;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("kek", masterKeyHolder.getMetrics());
+        metrics.put("dekCache", keyManagementService.getMetrics());
+        metrics.put("keyPairPool", keyPairPool.getMetrics());
+        metrics.put("issuerCache", issuerContextCache.getMetrics());
+        metrics.put("batchIssuance", batchIssuanceService.getMetrics());
+        metrics.put("issuanceJobs", issuanceJobService.getMetrics());
+        metrics.put("certificateContent", certificateContentService.getMetrics());
+        metrics.put("crl", crlService.getMetrics());
+        metrics.put("ocsp", ocspService.getMetrics());
+        metrics.put("revocationIndex", revocationIndex.getMetrics());
+        metrics.put("chainCache", certificateChainCache.getMetrics());
+        metrics.put("contentMigration", certificateContentMigrator.getMetrics());
+        metrics.put("export", certificateExportService.getMetrics());
+        metrics.put("keystoreCache", keystoreArtifactCache.getMetrics());
+        Map<String, Object> auth = new LinkedHashMap<>(jwtTokenProvider.getMetrics());
+        auth.putAll(jwtAuthenticationFilter.getMetrics());
+        auth.putAll(refreshTokenService.getMetrics());
+        auth.putAll(passwordEncoder.getMetrics());
+        auth.putAll(loginThrottle.getMetrics());
+        metrics.put("auth", auth);
+        return ResponseEntity.ok(metrics);
+    }
+
+    @PostMapping("/master-key/rotate")
+    public ResponseEntity<?> rotateMasterKey(@Valid @RequestBody MasterKeyRotationRequest request) {
+        try {
+            int rewrapped = keyManagementService.rotateMasterKey(request.getNewMasterKey());
+            return ResponseEntity.ok("Master key rotated, " + rewrapped + " organization keys re-wrapped");
+        } catch (RuntimeException e) {
+            return ResponseEntity.internalServerError().body("Error rotating master key: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/content-migration/run")
+    public ResponseEntity<?> runContentMigration() {
+        if (!certificateContentMigrator.start()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Content migration already running");
+        }
+        return ResponseEntity.accepted().body("Content migration started");
+    }
+
+    @PostMapping("/users/{username}/revoke-tokens")
+    public ResponseEntity<?> revokeUserTokens(@PathVariable String username) {
+        int families = refreshTokenService.revokeAllForUser(username);
+        return ResponseEntity.ok("Revoked " + families + " token families of " + username);
+    }
+}
@@ -3,16 +3,24 @@ package com.pki.controller;
 import com.pki.dto.JwtResponse;
 import com.pki.dto.LoginRequest;
 import com.pki.dto.RefreshTokenRequest;
-import com.pki.security.JwtTokenProvider;
+import com.pki.security.LoginThrottle;
+import com.pki.security.PasswordHashingBusyException;
+import com.pki.service.RefreshTokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
@@ -21,46 +29,56 @@ public class AuthController {
     private AuthenticationManager authenticationManager;
 
     @Autowired
-    private JwtTokenProvider tokenProvider;
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()
-                )
-        );
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                              HttpServletRequest request) {
+        long retryAfter = loginThrottle.tryAcquire(loginRequest.getUsername(), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body("Too many login attempts, retry later");
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getUsername(),
+                            loginRequest.getPassword()
+                    )
+            );
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Login is busy, retry later");
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
-        String accessToken = tokenProvider.generateAccessToken(authentication);
-        String refreshToken = tokenProvider.generateRefreshToken(authentication);
-
-        return ResponseEntity.ok(new JwtResponse(accessToken, refreshToken, loginRequest.getUsername()));
+        return ResponseEntity.ok(refreshTokenService.issue(authentication.getName()));
     }
 
     @PostMapping("/refresh")
     public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
-        String refreshToken = refreshTokenRequest.getRefreshToken();
-
-        if (tokenProvider.validateToken(refreshToken) && tokenProvider.isRefreshToken(refreshToken)) {
-            String username = tokenProvider.getUsernameFromToken(refreshToken);
-            
-            UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(username, null, null);
-            
-            String newAccessToken = tokenProvider.generateAccessToken(authentication);
-            String newRefreshToken = tokenProvider.generateRefreshToken(authentication);
-
-            return ResponseEntity.ok(new JwtResponse(newAccessToken, newRefreshToken, username));
+        Optional<JwtResponse> tokens = refreshTokenService.rotate(refreshTokenRequest.getRefreshToken());
+        if (tokens.isPresent()) {
+            return ResponseEntity.ok(tokens.get());
         } else {
             return ResponseEntity.badRequest().body("Invalid refresh token");
         }
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logoutUser() {
+    public ResponseEntity<?> logoutUser(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                        @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        String accessToken = StringUtils.hasText(authorization) && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        refreshTokenService.logout(accessToken, refreshTokenRequest == null ? null : refreshTokenRequest.getRefreshToken());
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok("User logged out successfully");
     }
@@ -1,19 +1,47 @@
 package com.pki.controller;
 
+import com.pki.dto.BatchCertificateRequest;
+import com.pki.dto.BatchCertificateResponse;
+import com.pki.dto.CertificateCountsResponse;
 import com.pki.dto.CertificateRequest;
 import com.pki.dto.CertificateResponse;
+import com.pki.dto.CertificateStatusRequest;
+import com.pki.dto.CertificateStatusResponse;
+import com.pki.dto.IssuanceJobResponse;
 import com.pki.entity.Certificate;
+import com.pki.repository.CertificateCount;
+import com.pki.repository.CertificateSummary;
+import com.pki.service.BatchIssuanceResult;
+import com.pki.service.BatchIssuanceService;
+import com.pki.service.CertificateChainCache;
+import com.pki.service.CertificateContentService;
+import com.pki.service.CertificateExportService;
+import com.pki.service.CertificatePage;
 import com.pki.service.CertificateService;
+import com.pki.service.CertificateTreeService;
+import com.pki.service.IssuanceJob;
+import com.pki.service.IssuanceJobService;
+import com.pki.service.KeystoreArtifact;
+import com.pki.service.PemUtils;
+import com.pki.service.RevocationIndex;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -21,64 +49,49 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasRole('ADMIN')")
 public class CertificateController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final MediaType PEM_CERTIFICATE_CHAIN = MediaType.parseMediaType("application/pem-certificate-chain");
+
     @Autowired
     private CertificateService certificateService;
 
-    @PostMapping
-    public ResponseEntity<?> createCertificate(@Valid @RequestBody CertificateRequest request) {
-        Certificate certificate;
+    @Autowired
+    private CertificateContentService certificateContentService;
+
+    @Autowired
+    private BatchIssuanceService batchIssuanceService;
+
+    @Autowired
+    private IssuanceJobService issuanceJobService;
+
+    @Autowired
+    private RevocationIndex revocationIndex;
+
+    @Autowired
+    private CertificateChainCache certificateChainCache;
+
+    @Autowired
+    private CertificateTreeService certificateTreeService;
+
+    @Autowired
+    private CertificateExportService certificateExportService;
+
+    @Value("${pki.revocation-index.max-bulk-size:10000}")
+    private int maxBulkStatusSize;
 
+    @PostMapping
+    public ResponseEntity<?> createCertificate(@Valid @RequestBody CertificateRequest request,
+                                               @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return submitCertificateJob(request);
+        }
         try {
             System.out.println("Creating certificate with request: " + request.getType());
-            Certificate.CertificateType type = Certificate.CertificateType.valueOf(request.getType());
-
-            switch (type) {
-                case SELF_SIGNED_ROOT:
-                    certificate = certificateService.createSelfSignedCertificate(
-                            request.getCommonName(),
-                            request.getOrganization(),
-                            request.getOrganizationalUnit(),
-                            request.getCountry(),
-                            request.getState(),
-                            request.getLocality(),
-                            request.getValidityYears()
-                    );
-                    break;
-                case INTERMEDIATE:
-                    if (request.getIssuerSerialNumber() == null) {
-                        return ResponseEntity.badRequest().body("Issuer serial number is required for intermediate certificates");
-                    }
-                    certificate = certificateService.createIntermediateCertificate(
-                            request.getCommonName(),
-                            request.getOrganization(),
-                            request.getOrganizationalUnit(),
-                            request.getCountry(),
-                            request.getState(),
-                            request.getLocality(),
-                            request.getValidityYears(),
-                            request.getIssuerSerialNumber()
-                    );
-                    break;
-                case END_ENTITY:
-                    if (request.getIssuerSerialNumber() == null) {
-                        return ResponseEntity.badRequest().body("Issuer serial number is required for end entity certificates");
-                    }
-                    certificate = certificateService.createEndEntityCertificate(
-                            request.getCommonName(),
-                            request.getOrganization(),
-                            request.getOrganizationalUnit(),
-                            request.getCountry(),
-                            request.getState(),
-                            request.getLocality(),
-                            request.getValidityYears(),
-                            request.getIssuerSerialNumber()
-                    );
-                    break;
-                default:
-                    return ResponseEntity.badRequest().body("Invalid certificate type");
-            }
-
+            Certificate certificate = certificateService.issueCertificate(request);
             return ResponseEntity.ok(convertToResponse(certificate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             System.err.println("Error creating certificate: " + e.getMessage());
             e.printStackTrace();
@@ -87,13 +100,34 @@ public class CertificateController {
         }
     }
 
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<IssuanceJobResponse> getCertificateJob(@PathVariable String id) {
+        return issuanceJobService.getJob(id)
+                .map(job -> ResponseEntity.ok(convertToResponse(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createCertificates(@Valid @RequestBody BatchCertificateRequest request) {
+        try {
+            BatchIssuanceResult result = batchIssuanceService.issue(request.getCertificates());
+            return ResponseEntity.ok(convertToResponse(result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error creating certificates: " + e.getMessage());
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<List<CertificateResponse>> getAllCertificates() {
-        List<Certificate> certificates = certificateService.getAllCertificates();
-        List<CertificateResponse> response = certificates.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> getAllCertificates(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return toPageResponse(certificateService.listCertificates(null, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{serialNumber}")
@@ -104,17 +138,133 @@ public class CertificateController {
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<CertificateResponse>> getCertificatesByType(@PathVariable String type) {
+    public ResponseEntity<?> getCertificatesByType(@PathVariable String type,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        Certificate.CertificateType certType;
         try {
-            Certificate.CertificateType certType = Certificate.CertificateType.valueOf(type);
-            List<Certificate> certificates = certificateService.getCertificatesByType(certType);
-            List<CertificateResponse> response = certificates.stream()
-                    .map(this::convertToResponse)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(response);
+            certType = Certificate.CertificateType.valueOf(type);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
+        try {
+            return toPageResponse(certificateService.listCertificates(certType, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<?> getCertificateCounts(@RequestParam(defaultValue = "30") int expiringWithinDays) {
+        if (expiringWithinDays < 0) {
+            return ResponseEntity.badRequest().body("expiringWithinDays must not be negative");
+        }
+        Map<String, Long> byType = new LinkedHashMap<>();
+        Map<String, Long> revokedByType = new LinkedHashMap<>();
+        for (Certificate.CertificateType type : Certificate.CertificateType.values()) {
+            byType.put(type.name(), 0L);
+            revokedByType.put(type.name(), 0L);
+        }
+        long total = 0;
+        long revoked = 0;
+        for (CertificateCount count : certificateService.countByTypeAndRevoked()) {
+            byType.merge(count.getType().name(), count.getCount(), Long::sum);
+            total += count.getCount();
+            if (count.isRevoked()) {
+                revokedByType.merge(count.getType().name(), count.getCount(), Long::sum);
+                revoked += count.getCount();
+            }
+        }
+
+        CertificateCountsResponse response = new CertificateCountsResponse();
+        response.setTotal(total);
+        response.setActive(total - revoked);
+        response.setRevoked(revoked);
+        response.setExpiringSoon(certificateService.countExpiringWithin(expiringWithinDays));
+        response.setByType(byType);
+        response.setRevokedByType(revokedByType);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/status")
+    public ResponseEntity<?> getStatuses(@Valid @RequestBody CertificateStatusRequest request) {
+        if (request.getSerialNumbers().size() > maxBulkStatusSize) {
+            return ResponseEntity.badRequest().body("At most " + maxBulkStatusSize + " serial numbers per request");
+        }
+        Map<String, RevocationIndex.Status> statuses =
+                revocationIndex.getStatuses(request.getSerialNumbers(), request.getIssuerSerialNumber());
+
+        CertificateStatusResponse response = new CertificateStatusResponse();
+        Map<String, String> byName = new LinkedHashMap<>();
+        statuses.forEach((serial, status) -> byName.put(serial, status.name()));
+        response.setStatuses(byName);
+        response.setTotal(statuses.size());
+        response.setRevoked((int) statuses.values().stream().filter(s -> s == RevocationIndex.Status.REVOKED).count());
+        response.setExpired((int) statuses.values().stream().filter(s -> s == RevocationIndex.Status.EXPIRED).count());
+        response.setUnknown((int) statuses.values().stream().filter(s -> s == RevocationIndex.Status.UNKNOWN).count());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCertificates(@RequestParam(defaultValue = "pem") String format,
+                                                                    @RequestParam(required = false) String type,
+                                                                    @RequestParam(required = false) String organization,
+                                                                    @RequestParam(required = false) String issuer,
+                                                                    @RequestParam(required = false) String cursor) {
+        CertificateExportService.Format exportFormat;
+        Certificate.CertificateType certType;
+        try {
+            exportFormat = CertificateExportService.parseFormat(format);
+            certType = type == null ? null : Certificate.CertificateType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out ->
+                certificateExportService.export(exportFormat, certType, organization, issuer, cursor, out);
+        boolean zip = exportFormat == CertificateExportService.Format.ZIP;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(zip ? MediaType.parseMediaType("application/zip") : MediaType.parseMediaType("application/x-pem-file"));
+        headers.setContentDispositionFormData("attachment", zip ? "certificates.zip" : "certificates.pem");
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @GetMapping("/tree")
+    public ResponseEntity<?> getForest(@RequestParam(defaultValue = "2") int depth,
+                                       @RequestParam(defaultValue = "100") int leafLimit) {
+        try {
+            return ResponseEntity.ok(certificateTreeService.getForest(depth, leafLimit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{serialNumber}/tree")
+    public ResponseEntity<?> getTree(@PathVariable String serialNumber,
+                                     @RequestParam(defaultValue = "2") int depth,
+                                     @RequestParam(defaultValue = "100") int leafLimit) {
+        try {
+            return certificateTreeService.getSubtree(serialNumber, depth, leafLimit)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{serialNumber}/chain")
+    public ResponseEntity<String> getCertificateChain(@PathVariable String serialNumber) {
+        try {
+            StringBuilder pem = new StringBuilder();
+            for (X509Certificate certificate : certificateChainCache.getChain(serialNumber)) {
+                pem.append(PemUtils.convertToPem(certificate));
+            }
+            return ResponseEntity.ok()
+                    .contentType(PEM_CERTIFICATE_CHAIN)
+                    .body(pem.toString());
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @PostMapping("/{serialNumber}/revoke")
@@ -129,14 +279,19 @@ public class CertificateController {
 
     @GetMapping("/{serialNumber}/download/{format}")
     public ResponseEntity<byte[]> downloadCertificate(@PathVariable String serialNumber, 
-                                                     @PathVariable String format) {
+                                                     @PathVariable String format,
+                                                     WebRequest request) {
         try {
             String keystoreType = format.toUpperCase();
             if (!keystoreType.equals("PKCS12") && !keystoreType.equals("JKS")) {
                 return ResponseEntity.badRequest().build();
             }
 
-            byte[] keystore = certificateService.createKeystore(serialNumber, keystoreType);
+            KeystoreArtifact artifact = certificateService.getKeystore(serialNumber, keystoreType);
+            if (request.checkNotModified(artifact.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(artifact.getEtag()).build();
+            }
+            byte[] keystore = artifact.getKeystore();
             
             String filename = "certificate_" + serialNumber + "." + (keystoreType.equals("PKCS12") ? "p12" : "jks");
             
@@ -144,6 +299,7 @@ public class CertificateController {
             headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
             headers.setContentDispositionFormData("attachment", filename);
             headers.setContentLength(keystore.length);
+            headers.setETag(artifact.getEtag());
 
             return new ResponseEntity<>(keystore, headers, HttpStatus.OK);
         } catch (RuntimeException e) {
@@ -167,7 +323,87 @@ public class CertificateController {
         response.setRevoked(certificate.isRevoked());
         response.setRevokedAt(certificate.getRevokedAt());
         response.setIssuerSerialNumber(certificate.getIssuerSerialNumber());
-        response.setCertificateData(certificate.getCertificateData());
+        response.setKeyAlgorithm(certificate.getKeyAlgorithm().name());
+        response.setKeySize(certificate.getKeySize());
+        response.setCertificateData(certificateContentService.loadCertificatePemBase64(certificate));
+        return response;
+    }
+
+    // List pages carry metadata only; the next page's cursor goes in X-Next-Cursor
+    private ResponseEntity<List<CertificateResponse>> toPageResponse(CertificatePage page) {
+        List<CertificateResponse> response = page.getCertificates().stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return builder.body(response);
+    }
+
+    private ResponseEntity<?> submitCertificateJob(CertificateRequest request) {
+        try {
+            IssuanceJob job = issuanceJobService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/certificates/jobs/{id}").buildAndExpand(job.getId()).toUri())
+                    .body(convertToResponse(job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Issuance queue is full, retry later");
+        }
+    }
+
+    private CertificateResponse convertToResponse(CertificateSummary summary) {
+        CertificateResponse response = new CertificateResponse();
+        response.setId(summary.getId());
+        response.setCommonName(summary.getCommonName());
+        response.setOrganization(summary.getOrganization());
+        response.setOrganizationalUnit(summary.getOrganizationalUnit());
+        response.setCountry(summary.getCountry());
+        response.setState(summary.getState());
+        response.setLocality(summary.getLocality());
+        response.setSerialNumber(summary.getSerialNumber());
+        response.setType(summary.getType().name());
+        response.setIssuedAt(summary.getIssuedAt());
+        response.setExpiresAt(summary.getExpiresAt());
+        response.setRevoked(summary.isRevoked());
+        response.setRevokedAt(summary.getRevokedAt());
+        response.setIssuerSerialNumber(summary.getIssuerSerialNumber());
+        response.setKeyAlgorithm(summary.getKeyAlgorithm().name());
+        response.setKeySize(summary.getKeySize());
+        return response;
+    }
+
+    private IssuanceJobResponse convertToResponse(IssuanceJob job) {
+        IssuanceJobResponse response = new IssuanceJobResponse();
+        response.setId(job.getId());
+        response.setStatus(job.getStatus().name());
+        response.setSubmittedAt(job.getSubmittedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        response.setError(job.getError());
+        if (job.getCertificate() != null) {
+            response.setCertificate(convertToResponse(job.getCertificate()));
+        }
+        return response;
+    }
+
+    private BatchCertificateResponse convertToResponse(BatchIssuanceResult result) {
+        List<BatchCertificateResponse.Item> items = result.getItems().stream()
+                .map(item -> new BatchCertificateResponse.Item(item.getIndex(), item.isSuccess(),
+                        item.isSuccess() ? convertToResponse(item.getCertificate()) : null, item.getError()))
+                .collect(Collectors.toList());
+        int succeeded = (int) result.getSucceeded();
+
+        BatchCertificateResponse response = new BatchCertificateResponse();
+        response.setTotal(items.size());
+        response.setSucceeded(succeeded);
+        response.setFailed(items.size() - succeeded);
+        response.setElapsedMillis(result.getElapsedNanos() / 1_000_000);
+        response.setCertificatesPerSecond(result.getCertificatesPerSecond());
+        response.setResults(items);
         return response;
     }
 }
\ No newline at end of file
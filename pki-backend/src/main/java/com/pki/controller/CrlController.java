@@ -0,0 +1,78 @@
+package com.pki.controller;
+
+import com.pki.service.CrlService;
+import com.pki.service.SignedCrl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Public CRL distribution. Relying parties fetch these without credentials.
+ */
+@RestController
+@RequestMapping("/crl")
+public class CrlController {
+
+    private static final MediaType PKIX_CRL = MediaType.parseMediaType("application/pkix-crl");
+
+    @Autowired
+    private CrlService crlService;
+
+    @GetMapping("/{issuerSerialNumber}")
+    public ResponseEntity<?> getCrl(@PathVariable String issuerSerialNumber,
+                                    @RequestParam(defaultValue = "der") String format,
+                                    WebRequest request) {
+        try {
+            return serve(crlService.getFullCrl(issuerSerialNumber), format, request);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error generating CRL: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{issuerSerialNumber}/delta")
+    public ResponseEntity<?> getDeltaCrl(@PathVariable String issuerSerialNumber,
+                                         @RequestParam(defaultValue = "der") String format,
+                                         WebRequest request) {
+        try {
+            return serve(crlService.getDeltaCrl(issuerSerialNumber), format, request);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error generating CRL: " + e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> serve(Optional<SignedCrl> found, String format, WebRequest request) {
+        boolean pem = format.equalsIgnoreCase("pem");
+        if (!pem && !format.equalsIgnoreCase("der")) {
+            return ResponseEntity.badRequest().body("Unsupported CRL format: " + format);
+        }
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        SignedCrl crl = found.get();
+        long lastModified = crl.getThisUpdate().toEpochMilli();
+        String etag = pem ? crl.getPemEtag() : crl.getDerEtag();
+
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .build();
+        }
+
+        byte[] body = pem ? crl.getPem().getBytes(StandardCharsets.US_ASCII) : crl.getDer();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(pem ? MediaType.TEXT_PLAIN : PKIX_CRL);
+        headers.setContentLength(body.length);
+        headers.setETag(etag);
+        headers.setLastModified(lastModified);
+        headers.setExpires(crl.getNextUpdate().toEpochMilli());
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
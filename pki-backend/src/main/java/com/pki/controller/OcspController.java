@@ -0,0 +1,72 @@
+package com.pki.controller;
+
+import com.pki.service.EtagUtils;
+import com.pki.service.OcspResult;
+import com.pki.service.OcspService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Public OCSP endpoint (RFC 6960 appendix A): POST with a DER request body, or GET with the
+ * base64 request appended to the path.
+ */
+@RestController
+@RequestMapping("/ocsp")
+public class OcspController {
+
+    private static final MediaType OCSP_RESPONSE = MediaType.parseMediaType("application/ocsp-response");
+
+    @Autowired
+    private OcspService ocspService;
+
+    @PostMapping(consumes = "application/ocsp-request")
+    public ResponseEntity<byte[]> post(@RequestBody byte[] request) {
+        return toResponse(ocspService.respond(request), false);
+    }
+
+    @GetMapping("/**")
+    public ResponseEntity<byte[]> get(HttpServletRequest request) {
+        // The base64 request may itself contain '/', so take everything after the mapping prefix.
+        // A literal '+' is base64, not an encoded space.
+        String prefix = request.getContextPath() + "/ocsp/";
+        String raw = request.getRequestURI().substring(prefix.length()).replace("+", "%2B");
+        String encoded = URLDecoder.decode(raw, StandardCharsets.UTF_8);
+        byte[] der;
+        try {
+            der = Base64.getMimeDecoder().decode(encoded);
+        } catch (IllegalArgumentException e) {
+            der = new byte[0];
+        }
+        return toResponse(ocspService.respond(der), true);
+    }
+
+    private ResponseEntity<byte[]> toResponse(OcspResult result, boolean cacheable) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(OCSP_RESPONSE);
+        headers.setContentLength(result.getEncoded().length);
+
+        // RFC 5019 section 6: let HTTP caches hold GET responses until nextUpdate
+        if (cacheable && result.isCacheable()) {
+            long maxAge = Math.max(0, Duration.between(Instant.now(), result.getNextUpdate()).getSeconds());
+            headers.setCacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic().mustRevalidate());
+            headers.setLastModified(result.getThisUpdate().toEpochMilli());
+            headers.setExpires(result.getNextUpdate().toEpochMilli());
+            headers.setETag(EtagUtils.etagOf(result.getEncoded()));
+        } else {
+            headers.setCacheControl(CacheControl.noStore());
+        }
+        return new ResponseEntity<>(result.getEncoded(), headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,21 @@
+package com.pki.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchCertificateRequest {
+    // Items are validated one by one so a bad entry fails only itself
+    @NotEmpty
+    private List<CertificateRequest> certificates;
+
+    public BatchCertificateRequest() {}
+
+    public List<CertificateRequest> getCertificates() {
+        return certificates;
+    }
+
+    public void setCertificates(List<CertificateRequest> certificates) {
+        this.certificates = certificates;
+    }
+}
@@ -0,0 +1,110 @@
+package com.pki.dto;
+
+import java.util.List;
+
+public class BatchCertificateResponse {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long elapsedMillis;
+    private double certificatesPerSecond;
+    private List<Item> results;
+
+    public BatchCertificateResponse() {}
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getCertificatesPerSecond() {
+        return certificatesPerSecond;
+    }
+
+    public void setCertificatesPerSecond(double certificatesPerSecond) {
+        this.certificatesPerSecond = certificatesPerSecond;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results;
+    }
+
+    public static class Item {
+        private int index;
+        private boolean success;
+        private CertificateResponse certificate;
+        private String error;
+
+        public Item() {}
+
+        public Item(int index, boolean success, CertificateResponse certificate, String error) {
+            this.index = index;
+            this.success = success;
+            this.certificate = certificate;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public CertificateResponse getCertificate() {
+            return certificate;
+        }
+
+        public void setCertificate(CertificateResponse certificate) {
+            this.certificate = certificate;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
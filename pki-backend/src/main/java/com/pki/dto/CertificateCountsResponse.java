@@ -0,0 +1,62 @@
+package com.pki.dto;
+
+import java.util.Map;
+
+public class CertificateCountsResponse {
+    private long total;
+    private long active;
+    private long revoked;
+    private long expiringSoon; // active certificates expiring within the requested window
+    private Map<String, Long> byType; // certificate type -> count
+    private Map<String, Long> revokedByType;
+
+    public CertificateCountsResponse() {}
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getActive() {
+        return active;
+    }
+
+    public void setActive(long active) {
+        this.active = active;
+    }
+
+    public long getRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(long revoked) {
+        this.revoked = revoked;
+    }
+
+    public long getExpiringSoon() {
+        return expiringSoon;
+    }
+
+    public void setExpiringSoon(long expiringSoon) {
+        this.expiringSoon = expiringSoon;
+    }
+
+    public Map<String, Long> getByType() {
+        return byType;
+    }
+
+    public void setByType(Map<String, Long> byType) {
+        this.byType = byType;
+    }
+
+    public Map<String, Long> getRevokedByType() {
+        return revokedByType;
+    }
+
+    public void setRevokedByType(Map<String, Long> revokedByType) {
+        this.revokedByType = revokedByType;
+    }
+}
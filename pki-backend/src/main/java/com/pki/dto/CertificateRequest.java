@@ -31,6 +31,10 @@ public class CertificateRequest {
 
     private String issuerSerialNumber; // Required for INTERMEDIATE and END_ENTITY
 
+    private String keyAlgorithm = "RSA"; // RSA, EC, ED25519
+
+    private Integer keySize; // Defaults per algorithm: RSA 2048, EC 256 (P-256), ED25519 255
+
     public CertificateRequest() {}
 
     public String getCommonName() {
@@ -104,4 +108,20 @@ public class CertificateRequest {
     public void setIssuerSerialNumber(String issuerSerialNumber) {
         this.issuerSerialNumber = issuerSerialNumber;
     }
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public void setKeyAlgorithm(String keyAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    public Integer getKeySize() {
+        return keySize;
+    }
+
+    public void setKeySize(Integer keySize) {
+        this.keySize = keySize;
+    }
 }
\ No newline at end of file
@@ -17,6 +17,8 @@ public class CertificateResponse {
     private boolean revoked;
     private LocalDateTime revokedAt;
     private String issuerSerialNumber;
+    private String keyAlgorithm;
+    private int keySize;
     private String certificateData;
 
     public CertificateResponse() {}
@@ -133,6 +135,22 @@ public class CertificateResponse {
         this.issuerSerialNumber = issuerSerialNumber;
     }
 
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public void setKeyAlgorithm(String keyAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    public int getKeySize() {
+        return keySize;
+    }
+
+    public void setKeySize(int keySize) {
+        this.keySize = keySize;
+    }
+
     public String getCertificateData() {
         return certificateData;
     }
@@ -0,0 +1,30 @@
+package com.pki.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class CertificateStatusRequest {
+    @NotEmpty
+    private List<String> serialNumbers;
+
+    private String issuerSerialNumber; // Optional: only match certificates issued by this CA
+
+    public CertificateStatusRequest() {}
+
+    public List<String> getSerialNumbers() {
+        return serialNumbers;
+    }
+
+    public void setSerialNumbers(List<String> serialNumbers) {
+        this.serialNumbers = serialNumbers;
+    }
+
+    public String getIssuerSerialNumber() {
+        return issuerSerialNumber;
+    }
+
+    public void setIssuerSerialNumber(String issuerSerialNumber) {
+        this.issuerSerialNumber = issuerSerialNumber;
+    }
+}
@@ -0,0 +1,53 @@
+package com.pki.dto;
+
+import java.util.Map;
+
+public class CertificateStatusResponse {
+    private int total;
+    private int revoked;
+    private int expired;
+    private int unknown;
+    private Map<String, String> statuses; // serial number -> GOOD, REVOKED, EXPIRED, UNKNOWN
+
+    public CertificateStatusResponse() {}
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(int revoked) {
+        this.revoked = revoked;
+    }
+
+    public int getExpired() {
+        return expired;
+    }
+
+    public void setExpired(int expired) {
+        this.expired = expired;
+    }
+
+    public int getUnknown() {
+        return unknown;
+    }
+
+    public void setUnknown(int unknown) {
+        this.unknown = unknown;
+    }
+
+    public Map<String, String> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(Map<String, String> statuses) {
+        this.statuses = statuses;
+    }
+}
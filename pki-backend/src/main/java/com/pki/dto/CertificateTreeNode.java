@@ -0,0 +1,127 @@
+package com.pki.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CertificateTreeNode {
+    private String serialNumber;
+    private String commonName;
+    private String organization;
+    private String type;
+    private LocalDateTime issuedAt;
+    private LocalDateTime expiresAt;
+    private boolean revoked;
+    private String keyAlgorithm;
+    private int depth;
+    private long childCount; // direct children, including any not listed in children
+    private long revokedChildCount;
+    private boolean truncated; // true when children holds fewer than childCount entries
+    private List<CertificateTreeNode> children = new ArrayList<>();
+
+    public CertificateTreeNode() {}
+
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public void setSerialNumber(String serialNumber) {
+        this.serialNumber = serialNumber;
+    }
+
+    public String getCommonName() {
+        return commonName;
+    }
+
+    public void setCommonName(String commonName) {
+        this.commonName = commonName;
+    }
+
+    public String getOrganization() {
+        return organization;
+    }
+
+    public void setOrganization(String organization) {
+        this.organization = organization;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(LocalDateTime issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public void setKeyAlgorithm(String keyAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getChildCount() {
+        return childCount;
+    }
+
+    public void setChildCount(long childCount) {
+        this.childCount = childCount;
+    }
+
+    public long getRevokedChildCount() {
+        return revokedChildCount;
+    }
+
+    public void setRevokedChildCount(long revokedChildCount) {
+        this.revokedChildCount = revokedChildCount;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public List<CertificateTreeNode> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<CertificateTreeNode> children) {
+        this.children = children;
+    }
+}
@@ -0,0 +1,22 @@
+package com.pki.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class MasterKeyRotationRequest {
+    @NotBlank
+    private String newMasterKey;
+
+    public MasterKeyRotationRequest() {}
+
+    public MasterKeyRotationRequest(String newMasterKey) {
+        this.newMasterKey = newMasterKey;
+    }
+
+    public String getNewMasterKey() {
+        return newMasterKey;
+    }
+
+    public void setNewMasterKey(String newMasterKey) {
+        this.newMasterKey = newMasterKey;
+    }
+}
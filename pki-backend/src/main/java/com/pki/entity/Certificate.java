@@ -4,11 +4,20 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "certificates")
+// Indexes mirror db/migration, which owns the schema
+@Table(name = "certificates", indexes = {
+        @Index(name = "idx_certificates_issuer", columnList = "issuerSerialNumber, id"),
+        @Index(name = "idx_certificates_type", columnList = "type, id"),
+        @Index(name = "idx_certificates_issuer_revoked", columnList = "issuerSerialNumber, revoked, revokedAt"),
+        @Index(name = "idx_certificates_expires", columnList = "expiresAt"),
+        @Index(name = "idx_certificates_organization", columnList = "organization, serialNumber")
+})
 public class Certificate {
 
+    // Sequence ids (pooled) so Hibernate can batch inserts; IDENTITY disables JDBC batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "certificates_seq")
+    @SequenceGenerator(name = "certificates_seq", sequenceName = "certificates_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -36,13 +45,10 @@ public class Certificate {
     @Enumerated(EnumType.STRING)
     private CertificateType type;
 
-    @Lob
-    @Column(nullable = false)
-    private String certificateData; // Base64 encoded certificate
-
-    @Lob
-    @Column(nullable = false)
-    private String encryptedPrivateKey; // Encrypted private key
+    // PEM and private key live in certificate_contents; read them via CertificateContentService
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL)
+    @JoinColumn(name = "content_id", nullable = false, unique = true)
+    private CertificateContent content;
 
     @Column(nullable = false)
     private LocalDateTime issuedAt;
@@ -59,12 +65,25 @@ public class Certificate {
     @Column
     private String issuerSerialNumber; // For intermediate and end-entity certificates
 
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private KeyAlgorithm keyAlgorithm = KeyAlgorithm.RSA;
+
+    @Column(nullable = false)
+    private int keySize = 2048;
+
     public enum CertificateType {
         SELF_SIGNED_ROOT,
         INTERMEDIATE,
         END_ENTITY
     }
 
+    public enum KeyAlgorithm {
+        RSA,
+        EC,
+        ED25519
+    }
+
     public Certificate() {}
 
     public Certificate(String commonName, String organization, String organizationalUnit,
@@ -151,20 +170,12 @@ public class Certificate {
         this.type = type;
     }
 
-    public String getCertificateData() {
-        return certificateData;
-    }
-
-    public void setCertificateData(String certificateData) {
-        this.certificateData = certificateData;
-    }
-
-    public String getEncryptedPrivateKey() {
-        return encryptedPrivateKey;
+    public CertificateContent getContent() {
+        return content;
     }
 
-    public void setEncryptedPrivateKey(String encryptedPrivateKey) {
-        this.encryptedPrivateKey = encryptedPrivateKey;
+    public void setContent(CertificateContent content) {
+        this.content = content;
     }
 
     public LocalDateTime getIssuedAt() {
@@ -206,4 +217,20 @@ public class Certificate {
     public void setIssuerSerialNumber(String issuerSerialNumber) {
         this.issuerSerialNumber = issuerSerialNumber;
     }
+
+    public KeyAlgorithm getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public void setKeyAlgorithm(KeyAlgorithm keyAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
+    public int getKeySize() {
+        return keySize;
+    }
+
+    public void setKeySize(int keySize) {
+        this.keySize = keySize;
+    }
 }
\ No newline at end of file
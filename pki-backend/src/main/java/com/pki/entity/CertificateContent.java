@@ -0,0 +1,107 @@
+package com.pki.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Certificate and wrapped private key for a certificate, kept out of the certificates row so
+ * metadata reads and revocation updates never pull key material.
+ *
+ * Format 1 (legacy) stores Base64 of the PEM text and Base64 of AES-GCM over the key PEM.
+ * Format 2 stores the raw DER certificate and AES-GCM over the PKCS#8 DER key as binary.
+ */
+@Entity
+@Table(name = "certificate_contents", indexes = {
+        @Index(name = "idx_certificate_contents_format", columnList = "formatVersion, id")
+})
+public class CertificateContent {
+
+    public static final int FORMAT_PEM_BASE64 = 1;
+    public static final int FORMAT_DER = 2;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "certificate_contents_seq")
+    @SequenceGenerator(name = "certificate_contents_seq", sequenceName = "certificate_contents_seq", allocationSize = 50)
+    private Long id;
+
+    // Rows written before the column existed are legacy rows
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    private int formatVersion = FORMAT_DER;
+
+    @Column(length = 16384)
+    private byte[] certificateDer;
+
+    @Column(length = 16384)
+    private byte[] encryptedKeyDer; // [iv||AES-GCM(PKCS#8 DER)]
+
+    @Lob
+    @Column
+    private String certificateData; // Format 1: Base64 encoded certificate PEM
+
+    @Lob
+    @Column
+    private String encryptedPrivateKey; // Format 1: Base64 of [iv||AES-GCM(private key PEM)]
+
+    public CertificateContent() {}
+
+    public CertificateContent(byte[] certificateDer, byte[] encryptedKeyDer) {
+        this.formatVersion = FORMAT_DER;
+        this.certificateDer = certificateDer;
+        this.encryptedKeyDer = encryptedKeyDer;
+    }
+
+    public CertificateContent(String certificateData, String encryptedPrivateKey) {
+        this.formatVersion = FORMAT_PEM_BASE64;
+        this.certificateData = certificateData;
+        this.encryptedPrivateKey = encryptedPrivateKey;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getFormatVersion() {
+        return formatVersion;
+    }
+
+    public void setFormatVersion(int formatVersion) {
+        this.formatVersion = formatVersion;
+    }
+
+    public byte[] getCertificateDer() {
+        return certificateDer;
+    }
+
+    public void setCertificateDer(byte[] certificateDer) {
+        this.certificateDer = certificateDer;
+    }
+
+    public byte[] getEncryptedKeyDer() {
+        return encryptedKeyDer;
+    }
+
+    public void setEncryptedKeyDer(byte[] encryptedKeyDer) {
+        this.encryptedKeyDer = encryptedKeyDer;
+    }
+
+    public String getCertificateData() {
+        return certificateData;
+    }
+
+    public void setCertificateData(String certificateData) {
+        this.certificateData = certificateData;
+    }
+
+    public String getEncryptedPrivateKey() {
+        return encryptedPrivateKey;
+    }
+
+    public void setEncryptedPrivateKey(String encryptedPrivateKey) {
+        this.encryptedPrivateKey = encryptedPrivateKey;
+    }
+}
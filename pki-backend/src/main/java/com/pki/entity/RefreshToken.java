@@ -0,0 +1,76 @@
+package com.pki.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * One issued refresh token. Tokens rotated from the same login share a family; presenting a
+ * token that was already consumed revokes the whole family.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "familyId"),
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expiresAt"),
+        @Index(name = "idx_refresh_tokens_username", columnList = "username, familyId")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String tokenId; // jti claim
+
+    @Column(nullable = false, length = 36)
+    private String familyId; // fid claim, shared with the access tokens issued alongside
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private Instant issuedAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private boolean consumed = false;
+
+    @Column(nullable = false)
+    private boolean revoked = false;
+
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenId, String familyId, String username, Instant issuedAt, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.familyId = familyId;
+        this.username = username;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTokenId() { return tokenId; }
+    public void setTokenId(String tokenId) { this.tokenId = tokenId; }
+
+    public String getFamilyId() { return familyId; }
+    public void setFamilyId(String familyId) { this.familyId = familyId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Instant getIssuedAt() { return issuedAt; }
+    public void setIssuedAt(Instant issuedAt) { this.issuedAt = issuedAt; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public boolean isConsumed() { return consumed; }
+    public void setConsumed(boolean consumed) { this.consumed = consumed; }
+
+    public boolean isRevoked() { return revoked; }
+    public void setRevoked(boolean revoked) { this.revoked = revoked; }
+}
@@ -1,5 +1,6 @@
 package com.pki.entity;
 
+import com.pki.security.UserCacheInvalidationListener;
 import jakarta.persistence.*;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,6 +11,7 @@ import java.util.Collections;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheInvalidationListener.class)
 public class User implements UserDetails {
 
     @Id
@@ -28,6 +30,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private boolean enabled = true;
 
+    // Username as loaded, so the user cache can evict the old name after a rename
+    @Transient
+    private String loadedUsername;
+
     public User() {}
 
     public User(String username, String password) {
@@ -95,4 +101,15 @@ public class User implements UserDetails {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+
+    public String getLoadedUsername() {
+        return loadedUsername;
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberUsername() {
+        loadedUsername = username;
+    }
 }
\ No newline at end of file
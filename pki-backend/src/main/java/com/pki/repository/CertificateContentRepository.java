@@ -0,0 +1,10 @@
+package com.pki.repository;
+
+import com.pki.entity.CertificateContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CertificateContentRepository extends JpaRepository<CertificateContent, Long> {
+    long countByFormatVersion(int formatVersion);
+}
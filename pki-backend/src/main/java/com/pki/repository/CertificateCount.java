@@ -0,0 +1,12 @@
+package com.pki.repository;
+
+import com.pki.entity.Certificate;
+
+/**
+ * Number of certificates of one type and revocation state, for the dashboard counts.
+ */
+public interface CertificateCount {
+    Certificate.CertificateType getType();
+    boolean isRevoked();
+    long getCount();
+}
@@ -0,0 +1,11 @@
+package com.pki.repository;
+
+/**
+ * Serial number and stored certificate encoding for bulk export; never touches the key columns.
+ */
+public interface CertificateExportRow {
+    String getSerialNumber();
+    int getFormatVersion();
+    byte[] getCertificateDer();
+    String getCertificateData();
+}
@@ -1,17 +1,153 @@
 package com.pki.repository;
 
 import com.pki.entity.Certificate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CertificateRepository extends JpaRepository<Certificate, Long> {
+
+    String TREE_COLUMNS = "c.id AS id, c.serial_number AS serialNumber, c.issuer_serial_number AS issuerSerialNumber, " +
+            "c.common_name AS commonName, c.organization AS organization, c.type AS type, c.issued_at AS issuedAt, " +
+            "c.expires_at AS expiresAt, c.revoked AS revoked, c.key_algorithm AS keyAlgorithm";
+
+    // Recursion only follows CA rows, so a large set of leaves under one CA never enters the CTE
+    String CA_SUBTREE_RECURSION = "UNION ALL SELECT c.id, c.serial_number, s.depth + 1 FROM certificates c " +
+            "JOIN ca_tree s ON c.issuer_serial_number = s.serial_number " +
+            "WHERE s.depth < :maxDepth AND c.type <> 'END_ENTITY' AND c.id <> s.id) " +
+            "SELECT " + TREE_COLUMNS + ", s.depth AS depth, " +
+            "(SELECT COUNT(*) FROM certificates k WHERE k.issuer_serial_number = c.serial_number AND k.id <> c.id) AS childCount, " +
+            "(SELECT COUNT(*) FROM certificates k WHERE k.issuer_serial_number = c.serial_number AND k.id <> c.id " +
+            "AND k.revoked = TRUE) AS revokedChildCount " +
+            "FROM ca_tree s JOIN certificates c ON c.id = s.id ORDER BY s.depth, c.id";
+
     Optional<Certificate> findBySerialNumber(String serialNumber);
     List<Certificate> findByType(Certificate.CertificateType type);
-    List<Certificate> findByRevokedFalse();
     List<Certificate> findByIssuerSerialNumber(String issuerSerialNumber);
+    List<Certificate> findByIssuerSerialNumberAndRevokedTrue(String issuerSerialNumber);
+    List<Certificate> findByIssuerSerialNumberAndRevokedTrueAndRevokedAtGreaterThanEqual(String issuerSerialNumber, LocalDateTime revokedAt);
     boolean existsBySerialNumber(String serialNumber);
-}
\ No newline at end of file
+    long countByRevokedFalseAndExpiresAtBetween(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT c.type AS type, c.revoked AS revoked, COUNT(c) AS count FROM Certificate c GROUP BY c.type, c.revoked")
+    List<CertificateCount> countByTypeAndRevoked();
+
+    // Keyset pages ordered by id; the select list leaves out the LOB columns
+    String SUMMARY_SELECT = "SELECT c.id AS id, c.commonName AS commonName, c.organization AS organization, " +
+            "c.organizationalUnit AS organizationalUnit, c.country AS country, c.state AS state, " +
+            "c.locality AS locality, c.serialNumber AS serialNumber, c.type AS type, c.issuedAt AS issuedAt, " +
+            "c.expiresAt AS expiresAt, c.revoked AS revoked, c.revokedAt AS revokedAt, " +
+            "c.issuerSerialNumber AS issuerSerialNumber, c.keyAlgorithm AS keyAlgorithm, c.keySize AS keySize " +
+            "FROM Certificate c ";
+
+    // Primary key range scan
+    @Query(SUMMARY_SELECT + "WHERE c.id > :afterId ORDER BY c.id")
+    List<CertificateSummary> findSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // Range scan of idx_certificates_type (type, id)
+    @Query(SUMMARY_SELECT + "WHERE c.type = :type AND c.id > :afterId ORDER BY c.id")
+    List<CertificateSummary> findSummariesByTypeAfter(@Param("type") Certificate.CertificateType type,
+                                                      @Param("afterId") long afterId,
+                                                      Pageable pageable);
+
+    // The anchor certificate and every CA below it down to maxDepth, with direct child counts
+    @Query(nativeQuery = true, value = "WITH RECURSIVE ca_tree(id, serial_number, depth) AS (" +
+            "SELECT id, serial_number, 0 FROM certificates WHERE serial_number = :serialNumber " +
+            CA_SUBTREE_RECURSION)
+    List<CertificateTreeRow> findCaSubtree(@Param("serialNumber") String serialNumber, @Param("maxDepth") int maxDepth);
+
+    // Same, anchored at every self-signed root
+    @Query(nativeQuery = true, value = "WITH RECURSIVE ca_tree(id, serial_number, depth) AS (" +
+            "SELECT id, serial_number, 0 FROM certificates WHERE type = 'SELF_SIGNED_ROOT' " +
+            CA_SUBTREE_RECURSION)
+    List<CertificateTreeRow> findCaForest(@Param("maxDepth") int maxDepth);
+
+    // First perParent end-entity children of each issuer, in issuance order
+    @Query(nativeQuery = true, value = "SELECT t.* FROM (SELECT " + TREE_COLUMNS + ", " +
+            "ROW_NUMBER() OVER (PARTITION BY c.issuer_serial_number ORDER BY c.id) AS rowNumber " +
+            "FROM certificates c WHERE c.issuer_serial_number IN (:issuerSerialNumbers) AND c.type = 'END_ENTITY') t " +
+            "WHERE t.rowNumber <= :perParent ORDER BY t.id")
+    List<CertificateTreeRow> findEndEntityChildren(@Param("issuerSerialNumbers") Collection<String> issuerSerialNumbers,
+                                                   @Param("perParent") int perParent);
+
+    // Content migration batches: owning certificates (for the organization DEK) of contents in the given format
+    @Query("SELECT c FROM Certificate c JOIN FETCH c.content ct " +
+            "WHERE ct.formatVersion = :formatVersion AND ct.id > :afterContentId ORDER BY ct.id")
+    List<Certificate> findWithContentByFormatVersion(@Param("formatVersion") int formatVersion,
+                                                     @Param("afterContentId") long afterContentId,
+                                                     Pageable pageable);
+
+    // Forward-only export cursor in serial number order, so the last serial received resumes an export.
+    // One query per driving filter, so each is a range scan of that filter's index; the remaining
+    // filters only narrow the rows that scan returns.
+    String EXPORT_SELECT = "SELECT c.serialNumber AS serialNumber, ct.formatVersion AS formatVersion, " +
+            "ct.certificateDer AS certificateDer, ct.certificateData AS certificateData " +
+            "FROM Certificate c JOIN c.content ct WHERE c.serialNumber > :afterSerialNumber ";
+    String EXPORT_ORDER = " ORDER BY c.serialNumber";
+
+    default Stream<CertificateExportRow> streamForExport(String afterSerialNumber, Certificate.CertificateType type,
+                                                         String organization, String issuerSerialNumber) {
+        if (issuerSerialNumber != null) {
+            return streamForExportByIssuer(afterSerialNumber, issuerSerialNumber, type, organization);
+        }
+        if (organization != null) {
+            return streamForExportByOrganization(afterSerialNumber, organization, type);
+        }
+        if (type != null) {
+            return streamForExportByType(afterSerialNumber, type);
+        }
+        return streamForExport(afterSerialNumber);
+    }
+
+    // Unique serial number index
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + EXPORT_ORDER)
+    Stream<CertificateExportRow> streamForExport(@Param("afterSerialNumber") String afterSerialNumber);
+
+    // idx_certificates_type
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "AND c.type = :type" + EXPORT_ORDER)
+    Stream<CertificateExportRow> streamForExportByType(@Param("afterSerialNumber") String afterSerialNumber,
+                                                       @Param("type") Certificate.CertificateType type);
+
+    // idx_certificates_organization (organization, serial_number)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "AND c.organization = :organization AND (:type IS NULL OR c.type = :type)" + EXPORT_ORDER)
+    Stream<CertificateExportRow> streamForExportByOrganization(@Param("afterSerialNumber") String afterSerialNumber,
+                                                               @Param("organization") String organization,
+                                                               @Param("type") Certificate.CertificateType type);
+
+    // idx_certificates_issuer
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "AND c.issuerSerialNumber = :issuerSerialNumber " +
+            "AND (:type IS NULL OR c.type = :type) AND (:organization IS NULL OR c.organization = :organization)" +
+            EXPORT_ORDER)
+    Stream<CertificateExportRow> streamForExportByIssuer(@Param("afterSerialNumber") String afterSerialNumber,
+                                                         @Param("issuerSerialNumber") String issuerSerialNumber,
+                                                         @Param("type") Certificate.CertificateType type,
+                                                         @Param("organization") String organization);
+}
@@ -0,0 +1,27 @@
+package com.pki.repository;
+
+import com.pki.entity.Certificate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadata-only view of a certificate for list endpoints; never loads the PEM or key columns.
+ */
+public interface CertificateSummary {
+    Long getId();
+    String getCommonName();
+    String getOrganization();
+    String getOrganizationalUnit();
+    String getCountry();
+    String getState();
+    String getLocality();
+    String getSerialNumber();
+    Certificate.CertificateType getType();
+    LocalDateTime getIssuedAt();
+    LocalDateTime getExpiresAt();
+    boolean isRevoked();
+    LocalDateTime getRevokedAt();
+    String getIssuerSerialNumber();
+    Certificate.KeyAlgorithm getKeyAlgorithm();
+    int getKeySize();
+}
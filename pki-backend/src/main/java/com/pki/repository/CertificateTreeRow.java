@@ -0,0 +1,22 @@
+package com.pki.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metadata-only row of a hierarchy query. Counts are only filled in for CA rows.
+ */
+public interface CertificateTreeRow {
+    Long getId();
+    String getSerialNumber();
+    String getIssuerSerialNumber();
+    String getCommonName();
+    String getOrganization();
+    String getType();
+    LocalDateTime getIssuedAt();
+    LocalDateTime getExpiresAt();
+    Boolean getRevoked();
+    String getKeyAlgorithm();
+    Integer getDepth();
+    Long getChildCount();
+    Long getRevokedChildCount();
+}
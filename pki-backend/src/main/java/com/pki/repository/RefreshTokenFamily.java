@@ -0,0 +1,11 @@
+package com.pki.repository;
+
+import java.time.Instant;
+
+/**
+ * A refresh-token family with the expiry of its newest token, after which no token from it is valid.
+ */
+public interface RefreshTokenFamily {
+    String getFamilyId();
+    Instant getExpiresAt();
+}
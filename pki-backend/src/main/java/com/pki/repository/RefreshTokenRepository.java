@@ -0,0 +1,40 @@
+package com.pki.repository;
+
+import com.pki.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenId(String tokenId);
+
+    // Consumes the token only if nobody did before; 0 means the token is being replayed
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.consumed = true WHERE r.tokenId = :tokenId AND r.consumed = false AND r.revoked = false")
+    int consume(@Param("tokenId") String tokenId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId AND r.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Query("SELECT MAX(r.expiresAt) FROM RefreshToken r WHERE r.familyId = :familyId")
+    Optional<Instant> findFamilyExpiry(@Param("familyId") String familyId);
+
+    @Query("SELECT r.familyId AS familyId, MAX(r.expiresAt) AS expiresAt FROM RefreshToken r " +
+           "WHERE r.username = :username AND r.revoked = false GROUP BY r.familyId HAVING MAX(r.expiresAt) > :now")
+    List<RefreshTokenFamily> findActiveFamilies(@Param("username") String username, @Param("now") Instant now);
+
+    @Query("SELECT r.familyId AS familyId, MAX(r.expiresAt) AS expiresAt FROM RefreshToken r " +
+           "WHERE r.revoked = true GROUP BY r.familyId HAVING MAX(r.expiresAt) > :now")
+    List<RefreshTokenFamily> findRevokedFamilies(@Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,107 @@
+package com.pki.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt with a cap on how many hashes run at once, so a burst of logins can only take that
+ * many cores away from certificate work. Callers over the cap wait briefly, then get a
+ * {@link PasswordHashingBusyException} instead of queueing without bound.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final int maxConcurrent;
+    private final long waitMillis;
+    private final Semaphore permits;
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder busyRejections = new LongAdder();
+
+    public BoundedPasswordEncoder(int strength, int maxConcurrent, long waitMillis) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.maxConcurrent = maxConcurrent;
+        this.waitMillis = waitMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return bounded(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return bounded(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // True for hashes made with a lower cost, so they are rehashed on the next successful login
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public Map<String, Object> getMetrics() {
+        long hashCount = hashes.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("bcryptStrength", strength);
+        metrics.put("maxConcurrentHashes", maxConcurrent);
+        metrics.put("activeHashes", maxConcurrent - permits.availablePermits());
+        metrics.put("queuedHashes", permits.getQueueLength());
+        metrics.put("hashes", hashCount);
+        metrics.put("avgHashMillis", hashCount == 0 ? 0.0 : hashNanos.sum() / (hashCount * 1_000_000.0));
+        metrics.put("busyRejections", busyRejections.sum());
+        return metrics;
+    }
+
+    private <T> T bounded(Supplier<T> hash) {
+        try {
+            if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                busyRejections.increment();
+                throw new PasswordHashingBusyException("Too many concurrent password verifications");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted waiting for password verification");
+        }
+        long start = System.nanoTime();
+        try {
+            return hash.get();
+        } finally {
+            hashes.increment();
+            hashNanos.add(System.nanoTime() - start);
+            permits.release();
+        }
+    }
+
+    /**
+     * Picks the highest BCrypt cost in [minStrength, maxStrength] whose hash still fits in
+     * targetMillis on this machine; each step up doubles the work.
+     */
+    public static int calibrateStrength(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        long millis = Long.MAX_VALUE;
+        // Best of two, the first run also pays for JIT warm-up
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            millis = Math.min(millis, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        int strength = minStrength;
+        while (strength < maxStrength && millis * 2 <= targetMillis) {
+            strength++;
+            millis *= 2;
+        }
+        return strength;
+    }
+}
@@ -1,14 +1,16 @@
 package com.pki.security;
 
+import com.pki.entity.User;
 import com.pki.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
@@ -18,4 +20,13 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
-}
\ No newline at end of file
+
+    // Called after a successful login when the stored hash uses a lower cost than configured
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + user.getUsername()));
+        entity.setPassword(newPassword);
+        return userRepository.save(entity);
+    }
+}
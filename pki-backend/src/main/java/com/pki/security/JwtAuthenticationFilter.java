@@ -1,5 +1,9 @@
 package com.pki.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,13 +14,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -27,23 +35,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer authenticatedTimer;
+    private Timer rejectedTimer;
+
+    // Time spent authenticating requests that carry a bearer token (verification, denylist and user lookup)
+    private final LongAdder authenticatedRequests = new LongAdder();
+    private final LongAdder authNanos = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        authenticatedTimer = Timer.builder("pki.auth.filter").tag("outcome", "authenticated").register(meterRegistry);
+        rejectedTimer = Timer.builder("pki.auth.filter").tag("outcome", "rejected").register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            // Already authenticated upstream (metrics scrape token)
+            if (StringUtils.hasText(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Refresh tokens are only accepted by /auth/refresh
+                Optional<Claims> claims = tokenProvider.verify(jwt)
+                        .filter(verified -> !JwtTokenProvider.isRefreshToken(verified))
+                        .filter(verified -> !tokenDenylist.isDenied(verified));
+                UserDetails userDetails = claims.isPresent() ? userDetailsCache.get(claims.get().getSubject()) : null;
+                boolean authenticated = userDetails != null && userDetails.isEnabled();
+                if (authenticated) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+                long elapsed = System.nanoTime() - start;
+                authenticatedRequests.increment();
+                authNanos.add(elapsed);
+                (authenticated ? authenticatedTimer : rejectedTimer).record(elapsed, TimeUnit.NANOSECONDS);
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -52,6 +90,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    public Map<String, Object> getMetrics() {
+        long count = authenticatedRequests.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("bearerRequests", count);
+        metrics.put("avgAuthMicros", count == 0 ? 0.0 : authNanos.sum() / (count * 1_000.0));
+        metrics.putAll(userDetailsCache.getMetrics());
+        return metrics;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
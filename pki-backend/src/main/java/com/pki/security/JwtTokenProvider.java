@@ -1,7 +1,11 @@
 package com.pki.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,12 +15,21 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    // Refresh-token family a token was issued under; access tokens carry their refresh token's family
+    public static final String FAMILY_CLAIM = "fid";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -26,53 +39,114 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Built once; both are immutable and safe to share between request threads
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Tokens that passed signature and expiry checks, each kept until its own expiry
+    private Cache<String, Claims> verifiedTokens;
+
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder verificationNanos = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        long remainingMillis = claims.getExpiration() == null ? 0
+                                : claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
     }
 
     public String generateAccessToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        return generateAccessToken(userPrincipal.getUsername());
+    }
+
+    public String generateAccessToken(String username) {
+        return generateAccessToken(username, null);
+    }
+
+    public String generateAccessToken(String username, String familyId) {
         Date expiryDate = new Date(System.currentTimeMillis() + accessTokenExpiration);
 
         return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
                 .claim("type", "access")
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claim(FAMILY_CLAIM, familyId)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public String generateRefreshToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        return generateRefreshToken(userPrincipal.getUsername());
+    }
+
+    public String generateRefreshToken(String username) {
+        return generateRefreshToken(username, UUID.randomUUID().toString());
+    }
+
+    public String generateRefreshToken(String username, String familyId) {
         Date expiryDate = new Date(System.currentTimeMillis() + refreshTokenExpiration);
 
         return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
                 .claim("type", "refresh")
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claim(FAMILY_CLAIM, familyId)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
+    /**
+     * Verifies the token's signature and expiry once and returns its claims, or empty when the
+     * token is not valid. Recently verified tokens are answered from memory until they expire.
+     */
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
 
-    public boolean validateToken(String authToken) {
+        long start = System.nanoTime();
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims);
+            return Optional.of(claims);
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -83,21 +157,40 @@ public class JwtTokenProvider {
             logger.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
+        } finally {
+            verifications.increment();
+            verificationNanos.add(System.nanoTime() - start);
         }
-        return false;
+        rejections.increment();
+        return Optional.empty();
+    }
+
+    public static boolean isRefreshToken(Claims claims) {
+        return "refresh".equals(claims.get("type"));
+    }
+
+    public String getUsernameFromToken(String token) {
+        return verify(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid JWT token"));
+    }
+
+    public boolean validateToken(String authToken) {
+        return verify(authToken).isPresent();
     }
 
     public boolean isRefreshToken(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            return "refresh".equals(claims.get("type"));
-        } catch (Exception e) {
-            return false;
-        }
+        return verify(token).map(JwtTokenProvider::isRefreshToken).orElse(false);
+    }
+
+    public Map<String, Object> getMetrics() {
+        long verificationCount = verifications.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("verifiedCacheSize", verifiedTokens.estimatedSize());
+        metrics.put("verifiedCacheHits", verifiedTokens.stats().hitCount());
+        metrics.put("verifications", verificationCount);
+        metrics.put("rejections", rejections.sum());
+        metrics.put("avgVerificationMicros", verificationCount == 0 ? 0.0 : verificationNanos.sum() / (verificationCount * 1_000.0));
+        return metrics;
     }
-}
\ No newline at end of file
+}
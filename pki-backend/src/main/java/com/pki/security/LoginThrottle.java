@@ -0,0 +1,117 @@
+package com.pki.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets that limit login attempts per username and per client address before any
+ * password is hashed. Buckets are created on first use and dropped once idle long enough to
+ * have refilled completely.
+ */
+@Component
+public class LoginThrottle {
+
+    @Value("${pki.login.user.capacity:5}")
+    private int userCapacity;
+
+    @Value("${pki.login.user.refill-per-minute:5}")
+    private double userRefillPerMinute;
+
+    @Value("${pki.login.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${pki.login.ip.refill-per-minute:30}")
+    private double ipRefillPerMinute;
+
+    @Value("${pki.login.max-tracked:100000}")
+    private long maxTracked;
+
+    private Cache<String, TokenBucket> userBuckets;
+    private Cache<String, TokenBucket> ipBuckets;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttledByUser = new LongAdder();
+    private final LongAdder throttledByIp = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        userBuckets = newBuckets(userCapacity, userRefillPerMinute);
+        ipBuckets = newBuckets(ipCapacity, ipRefillPerMinute);
+    }
+
+    /**
+     * Takes one attempt from both buckets; returns 0 when the attempt may proceed, otherwise
+     * the number of seconds until it would be allowed.
+     */
+    public long tryAcquire(String username, String clientAddress) {
+        long ipWait = ipBuckets.get(clientAddress, key -> new TokenBucket(ipCapacity, ipRefillPerMinute)).tryConsume();
+        if (ipWait > 0) {
+            throttledByIp.increment();
+            return toRetrySeconds(ipWait);
+        }
+        long userWait = userBuckets.get(username, key -> new TokenBucket(userCapacity, userRefillPerMinute)).tryConsume();
+        if (userWait > 0) {
+            throttledByUser.increment();
+            return toRetrySeconds(userWait);
+        }
+        allowed.increment();
+        return 0;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("loginAttemptsAllowed", allowed.sum());
+        metrics.put("loginThrottledByUser", throttledByUser.sum());
+        metrics.put("loginThrottledByIp", throttledByIp.sum());
+        metrics.put("trackedUsers", userBuckets.estimatedSize());
+        metrics.put("trackedAddresses", ipBuckets.estimatedSize());
+        return metrics;
+    }
+
+    private Cache<String, TokenBucket> newBuckets(int capacity, double refillPerMinute) {
+        long secondsToFull = (long) Math.ceil(capacity * 60 / refillPerMinute);
+        return Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(Duration.ofSeconds(secondsToFull))
+                .build();
+    }
+
+    private static long toRetrySeconds(long waitNanos) {
+        return Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(int capacity, double refillPerMinute) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        // Returns 0 when a token was taken, otherwise the nanoseconds until one is available
+        synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.pki.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Lets a Prometheus scraper read the actuator endpoints with a static bearer token instead of
+ * a user JWT. Disabled unless {@code pki.metrics.scrape-token} is set; the token only grants
+ * ROLE_METRICS and is only honoured under /actuator/.
+ */
+@Component
+public class MetricsScrapeTokenFilter extends OncePerRequestFilter {
+
+    @Value("${pki.metrics.scrape-token:}")
+    private String scrapeToken;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !StringUtils.hasText(scrapeToken)
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            byte[] presented = header.substring(7).getBytes(StandardCharsets.UTF_8);
+            if (MessageDigest.isEqual(presented, scrapeToken.getBytes(StandardCharsets.UTF_8))) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        "metrics-scraper", null, List.of(new SimpleGrantedAuthority("ROLE_METRICS")));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
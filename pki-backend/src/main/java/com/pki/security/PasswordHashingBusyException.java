@@ -0,0 +1,13 @@
+package com.pki.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when no password-hashing slot frees up in time; the credentials were not checked.
+ */
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.pki.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token ids (jti) and refresh-token family ids (fid) that must no longer authenticate. Each
+ * entry lives only until the tokens it covers would have expired anyway, so the set stays as
+ * small as the number of live revoked tokens and a lookup is a single hash probe.
+ */
+@Component
+public class TokenDenylist {
+
+    // Not size-bounded: evicting an entry early would make a revoked token valid again
+    private final Cache<String, Instant> denied = Caffeine.newBuilder()
+            .expireAfter(new Expiry<String, Instant>() {
+                @Override
+                public long expireAfterCreate(String id, Instant expiresAt, long currentTime) {
+                    long remainingMillis = expiresAt.toEpochMilli() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                }
+
+                @Override
+                public long expireAfterUpdate(String id, Instant expiresAt, long currentTime, long currentDuration) {
+                    return expireAfterCreate(id, expiresAt, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String id, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public void deny(String id, Instant expiresAt) {
+        if (id != null && expiresAt != null && expiresAt.isAfter(Instant.now())) {
+            denied.asMap().merge(id, expiresAt, (current, added) -> added.isAfter(current) ? added : current);
+        }
+    }
+
+    /**
+     * True when the token itself or the refresh-token family it belongs to was revoked.
+     */
+    public boolean isDenied(Claims claims) {
+        boolean isDenied = contains(claims.getId()) || contains(claims.get(JwtTokenProvider.FAMILY_CLAIM, String.class));
+        if (isDenied) {
+            rejected.increment();
+        }
+        return isDenied;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("denylistSize", denied.estimatedSize());
+        metrics.put("denylistRejections", rejected.sum());
+        return metrics;
+    }
+
+    private boolean contains(String id) {
+        return id != null && denied.getIfPresent(id) != null;
+    }
+}
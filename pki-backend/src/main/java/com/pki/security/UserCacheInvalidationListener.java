@@ -0,0 +1,39 @@
+package com.pki.security;
+
+import com.pki.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link UserDetailsCache} in step with the users table, so disabling a user or changing
+ * their role takes effect on the next request instead of after the cache TTL.
+ */
+@Component
+public class UserCacheInvalidationListener {
+
+    @Autowired
+    @Lazy
+    private UserDetailsCache userDetailsCache;
+
+    // Only the updated user, e.g. after a password rehash on login; a rename also drops the old name
+    @PreUpdate
+    void onUpdate(User user) {
+        String previous = user.getLoadedUsername();
+        if (previous == null) {
+            userDetailsCache.invalidateAll();
+            return;
+        }
+        userDetailsCache.invalidate(user.getUsername());
+        if (!previous.equals(user.getUsername())) {
+            userDetailsCache.invalidate(previous);
+        }
+    }
+
+    @PostRemove
+    void onRemove(User user) {
+        userDetailsCache.invalidate(user.getUsername());
+    }
+}
@@ -0,0 +1,97 @@
+package com.pki.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Users resolved for bearer-token requests, so an authenticated request does not query the
+ * users table. Entries are immutable snapshots without the password hash; they expire after a
+ * short TTL and are dropped as soon as a user row is changed or deleted.
+ */
+@Component
+public class UserDetailsCache {
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Value("${pki.user-cache.max-size:1000}")
+    private long maxSize;
+
+    @Value("${pki.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private LoadingCache<String, UserDetails> users;
+
+    @PostConstruct
+    void init() {
+        users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(this::snapshot);
+    }
+
+    /**
+     * Returns the user, loading it on a miss; throws UsernameNotFoundException for unknown users.
+     */
+    public UserDetails get(String username) {
+        return users.get(username);
+    }
+
+    public void invalidate(String username) {
+        afterCommit(() -> users.invalidate(username));
+    }
+
+    public void invalidateAll() {
+        afterCommit(users::invalidateAll);
+    }
+
+    public Map<String, Object> getMetrics() {
+        CacheStats stats = users.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("userCacheSize", users.estimatedSize());
+        metrics.put("userCacheHits", stats.hitCount());
+        metrics.put("userCacheLoads", stats.loadCount());
+        metrics.put("userCacheHitRate", stats.hitRate());
+        return metrics;
+    }
+
+    private UserDetails snapshot(String username) {
+        UserDetails user = userDetailsService.loadUserByUsername(username);
+        return User.withUsername(user.getUsername())
+                .password("")
+                .authorities(user.getAuthorities())
+                .disabled(!user.isEnabled())
+                .accountLocked(!user.isAccountNonLocked())
+                .accountExpired(!user.isAccountNonExpired())
+                .credentialsExpired(!user.isCredentialsNonExpired())
+                .build();
+    }
+
+    // Evict once the change is visible, otherwise a concurrent request could re-cache the old row
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
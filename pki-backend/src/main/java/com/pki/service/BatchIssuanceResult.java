@@ -0,0 +1,60 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+
+import java.util.List;
+
+public class BatchIssuanceResult {
+
+    private final List<Item> items;
+    private final long elapsedNanos;
+
+    public BatchIssuanceResult(List<Item> items, long elapsedNanos) {
+        this.items = items;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getSucceeded() {
+        return items.stream().filter(Item::isSuccess).count();
+    }
+
+    public double getCertificatesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : getSucceeded() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    public static class Item {
+        private final int index;
+        private final Certificate certificate;
+        private final String error;
+
+        public Item(int index, Certificate certificate, String error) {
+            this.index = index;
+            this.certificate = certificate;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Certificate getCertificate() {
+            return certificate;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.pki.service;
+
+import com.pki.dto.CertificateRequest;
+import com.pki.entity.Certificate;
+import com.pki.repository.CertificateRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Issues a list of certificates by running keygen and signing for each item on the batch
+ * executor, then saving the signed certificates in chunks so Hibernate can batch the inserts.
+ * Issuers must already exist; a failing item does not stop the rest of the batch.
+ */
+@Service
+public class BatchIssuanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchIssuanceService.class);
+
+    @Autowired
+    private CertificateService certificateService;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private RevocationIndex revocationIndex;
+
+    @Autowired
+    @Qualifier("batchIssuanceExecutor")
+    private ExecutorService batchIssuanceExecutor;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${pki.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${pki.batch.persist-chunk-size:500}")
+    private int persistChunkSize;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private volatile double lastCertificatesPerSecond;
+
+    public BatchIssuanceResult issue(List<CertificateRequest> requests) {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch is empty");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size " + requests.size() + " exceeds the limit of " + maxBatchSize);
+        }
+
+        long start = System.nanoTime();
+        BatchIssuanceResult.Item[] items = new BatchIssuanceResult.Item[requests.size()];
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            CertificateRequest request = requests.get(i);
+            String violations = validate(request);
+            if (violations != null) {
+                items[index] = new BatchIssuanceResult.Item(index, null, violations);
+                continue;
+            }
+            pending.add(CompletableFuture
+                    .supplyAsync(() -> certificateService.prepareCertificate(request), batchIssuanceExecutor)
+                    .handle((certificate, error) -> {
+                        items[index] = error == null
+                                ? new BatchIssuanceResult.Item(index, certificate, null)
+                                : new BatchIssuanceResult.Item(index, null, describe(error));
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+
+        persist(items);
+
+        BatchIssuanceResult result = new BatchIssuanceResult(Arrays.asList(items), System.nanoTime() - start);
+        long succeeded = result.getSucceeded();
+        batches.increment();
+        issued.add(succeeded);
+        failed.add(items.length - succeeded);
+        lastBatchSize.set(items.length);
+        lastCertificatesPerSecond = result.getCertificatesPerSecond();
+        logger.info("Batch of {} issued {} certificates in {} ms ({} certs/s)", items.length, succeeded,
+                result.getElapsedNanos() / 1_000_000, String.format("%.1f", lastCertificatesPerSecond));
+        return result;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("batches", batches.sum());
+        metrics.put("issued", issued.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("lastBatchSize", lastBatchSize.get());
+        metrics.put("lastCertificatesPerSecond", lastCertificatesPerSecond);
+        return metrics;
+    }
+
+    private void persist(BatchIssuanceResult.Item[] items) {
+        List<BatchIssuanceResult.Item> built = Arrays.stream(items)
+                .filter(BatchIssuanceResult.Item::isSuccess)
+                .collect(Collectors.toList());
+
+        for (int from = 0; from < built.size(); from += persistChunkSize) {
+            List<BatchIssuanceResult.Item> chunk = built.subList(from, Math.min(from + persistChunkSize, built.size()));
+            List<Certificate> certificates = chunk.stream()
+                    .map(BatchIssuanceResult.Item::getCertificate)
+                    .collect(Collectors.toList());
+            try {
+                List<Certificate> saved = certificateRepository.saveAll(certificates);
+                revocationIndex.onIssued(saved);
+                for (int i = 0; i < chunk.size(); i++) {
+                    int index = chunk.get(i).getIndex();
+                    items[index] = new BatchIssuanceResult.Item(index, saved.get(i), null);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Error saving batch chunk of {} certificates", chunk.size(), e);
+                for (BatchIssuanceResult.Item item : chunk) {
+                    items[item.getIndex()] = new BatchIssuanceResult.Item(item.getIndex(), null,
+                            "Error saving certificate: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private String validate(CertificateRequest request) {
+        Set<ConstraintViolation<CertificateRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String describe(Throwable error) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (e.getCause() != null && e.getCause().getMessage() != null) {
+            return e.getMessage() + ": " + e.getCause().getMessage();
+        }
+        return e.getMessage();
+    }
+}
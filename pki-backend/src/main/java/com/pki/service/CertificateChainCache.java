@@ -0,0 +1,144 @@
+package com.pki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pki.entity.Certificate;
+import com.pki.repository.CertificateRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parsed certificate chains (leaf first, root last) keyed by serial number. A miss walks the
+ * issuerSerialNumber links only up to the nearest cached ancestor, so each level is fetched and
+ * parsed once and every level built on the way is cached too. Revoking a CA drops all cached
+ * chains that pass through it.
+ */
+@Component
+public class CertificateChainCache {
+
+    private static final int MAX_DEPTH = 16;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private CertificateContentService certificateContentService;
+
+    @Value("${pki.chain-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${pki.chain-cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    private Cache<String, List<X509Certificate>> chains;
+
+    private final LongAdder levelsBuilt = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        chains = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the unmodifiable chain for the certificate, from the certificate itself up to its root.
+     */
+    public List<X509Certificate> getChain(String serialNumber) {
+        List<X509Certificate> cached = chains.getIfPresent(serialNumber);
+        if (cached != null) {
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        Deque<Certificate> missing = new ArrayDeque<>();
+        List<X509Certificate> ancestorChain = Collections.emptyList();
+        String current = serialNumber;
+        while (current != null) {
+            if (!missing.isEmpty()) {
+                List<X509Certificate> ancestor = chains.policy().getIfPresentQuietly(current);
+                if (ancestor != null) {
+                    ancestorChain = ancestor;
+                    break;
+                }
+            }
+            if (missing.size() >= MAX_DEPTH) {
+                throw new RuntimeException("Certificate chain exceeds " + MAX_DEPTH + " levels");
+            }
+            Certificate certificate = certificateRepository.findBySerialNumber(current)
+                    .orElseThrow(() -> new RuntimeException(missing.isEmpty()
+                            ? "Certificate not found" : "Issuer certificate not found"));
+            missing.push(certificate);
+            current = certificate.getIssuerSerialNumber();
+        }
+
+        // Build downwards from the topmost missing level, caching each intermediate chain
+        List<X509Certificate> chain = ancestorChain;
+        while (!missing.isEmpty()) {
+            Certificate certificate = missing.pop();
+            List<X509Certificate> next = new ArrayList<>(chain.size() + 1);
+            next.add(certificateContentService.loadCertificate(certificate));
+            next.addAll(chain);
+            chain = Collections.unmodifiableList(next);
+            chains.put(certificate.getSerialNumber(), chain);
+            levelsBuilt.increment();
+        }
+        builds.increment();
+        buildNanos.add(System.nanoTime() - start);
+        return chain;
+    }
+
+    /**
+     * Drops the certificate's chain and, for a CA, every cached chain that includes it.
+     */
+    public void onRevocation(Certificate certificate) {
+        String serialNumber = certificate.getSerialNumber();
+        chains.invalidate(serialNumber);
+        if (certificate.getType() != Certificate.CertificateType.END_ENTITY) {
+            chains.asMap().entrySet().removeIf(entry -> contains(entry.getValue(), serialNumber));
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        CacheStats stats = chains.stats();
+        long buildCount = builds.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", chains.estimatedSize());
+        metrics.put("maxSize", maxSize);
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("builds", buildCount);
+        metrics.put("levelsBuilt", levelsBuilt.sum());
+        metrics.put("avgBuildMillis", buildCount == 0 ? 0.0 : buildNanos.sum() / (buildCount * 1_000_000.0));
+        return metrics;
+    }
+
+    private static boolean contains(List<X509Certificate> chain, String serialNumber) {
+        for (X509Certificate certificate : chain) {
+            if (certificate.getSerialNumber().toString().equals(serialNumber)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
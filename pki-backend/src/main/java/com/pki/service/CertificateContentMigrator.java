@@ -0,0 +1,185 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import com.pki.entity.CertificateContent;
+import com.pki.repository.CertificateContentRepository;
+import com.pki.repository.CertificateRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.PrivateKey;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rewrites legacy (format 1) certificate contents to the binary DER format in small keyset
+ * batches, one transaction per batch, on a background thread. The application keeps serving
+ * while it runs since both formats are readable; rows that fail are skipped until the next pass.
+ */
+@Component
+public class CertificateContentMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateContentMigrator.class);
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private CertificateContentRepository certificateContentRepository;
+
+    @Autowired
+    private CertificateContentService certificateContentService;
+
+    @Autowired
+    private KeyManagementService keyManagementService;
+
+    @Autowired
+    private EncryptionService encryptionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("contentMigrationExecutor")
+    private ExecutorService executor;
+
+    @Value("${pki.content-migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pki.content-migration.batch-size:200}")
+    private int batchSize;
+
+    @Value("${pki.content-migration.pause-ms:50}")
+    private long pauseMillis;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder migrated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder passes = new LongAdder();
+    private volatile long lastPassMillis;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${pki.content-migration.initial-delay-ms:10000}",
+            fixedDelayString = "${pki.content-migration.check-interval-ms:3600000}")
+    void scheduledPass() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Starts a pass in the background; returns false when one is already running.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(this::runPass);
+            return true;
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+            return false;
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("running", running.get());
+        metrics.put("remaining", certificateContentRepository.countByFormatVersion(CertificateContent.FORMAT_PEM_BASE64));
+        metrics.put("migrated", migrated.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("passes", passes.sum());
+        metrics.put("lastPassMillis", lastPassMillis);
+        return metrics;
+    }
+
+    private void runPass() {
+        long start = System.currentTimeMillis();
+        long before = migrated.sum();
+        try {
+            long afterContentId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                long from = afterContentId;
+                Long last = transactionTemplate.execute(status -> migrateBatch(from));
+                if (last == null) {
+                    break;
+                }
+                afterContentId = last;
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Certificate content migration pass failed", e);
+        } finally {
+            lastPassMillis = System.currentTimeMillis() - start;
+            passes.increment();
+            running.set(false);
+        }
+        long count = migrated.sum() - before;
+        if (count > 0) {
+            logger.info("Migrated {} certificate contents to DER format in {} ms", count, lastPassMillis);
+        }
+    }
+
+    // Returns the last content id of the batch, or null when no legacy rows are left past afterContentId
+    private Long migrateBatch(long afterContentId) {
+        List<Certificate> batch = certificateRepository.findWithContentByFormatVersion(
+                CertificateContent.FORMAT_PEM_BASE64, afterContentId, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return null;
+        }
+        for (Certificate certificate : batch) {
+            CertificateContent content = certificate.getContent();
+            try {
+                byte[] dek = keyManagementService.getDekForOrganization(certificate.getOrganization());
+                byte[] certificateDer = certificateContentService.certificateDer(content);
+                try {
+                    PrivateKey privateKey = certificateContentService.privateKey(content, dek);
+                    byte[] pkcs8 = privateKey.getEncoded();
+                    try {
+                        content.setEncryptedKeyDer(encryptionService.encryptBytesWithKey(dek, pkcs8));
+                    } finally {
+                        Arrays.fill(pkcs8, (byte) 0);
+                    }
+                } finally {
+                    Arrays.fill(dek, (byte) 0);
+                }
+                content.setCertificateDer(certificateDer);
+                content.setCertificateData(null);
+                content.setEncryptedPrivateKey(null);
+                content.setFormatVersion(CertificateContent.FORMAT_DER);
+                migrated.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                logger.warn("Could not migrate content of certificate {}", certificate.getSerialNumber(), e);
+            }
+        }
+        return batch.get(batch.size() - 1).getContent().getId();
+    }
+}
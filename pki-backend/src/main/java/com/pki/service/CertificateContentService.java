@@ -0,0 +1,163 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import com.pki.entity.CertificateContent;
+import com.pki.repository.CertificateContentRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The only path to a certificate's stored encoding and encrypted private key. Certificates
+ * loaded from the database carry an uninitialized content reference; this fetches it
+ * explicitly and times it, and decodes either storage format. PEM is produced only on demand.
+ */
+@Service
+public class CertificateContentService {
+
+    @Autowired
+    private CertificateContentRepository certificateContentRepository;
+
+    @Autowired
+    private EncryptionService encryptionService;
+
+    // Format new rows are written in; stay on 1 until every node can read format 2
+    @Value("${pki.content.write-format-version:2}")
+    private int writeFormatVersion;
+
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder fetchNanos = new LongAdder();
+    private final AtomicLong maxFetchNanos = new AtomicLong();
+    private final LongAdder legacyReads = new LongAdder();
+
+    public CertificateContent load(Certificate certificate) {
+        CertificateContent content = certificate.getContent();
+        if (content == null) {
+            throw new RuntimeException("Certificate content not found");
+        }
+        // Freshly issued certificates still hold their content in memory
+        if (Hibernate.isInitialized(content)) {
+            return content;
+        }
+
+        long start = System.nanoTime();
+        CertificateContent loaded = certificateContentRepository.findById(content.getId())
+                .orElseThrow(() -> new RuntimeException("Certificate content not found"));
+        long elapsed = System.nanoTime() - start;
+        fetches.increment();
+        fetchNanos.add(elapsed);
+        maxFetchNanos.accumulateAndGet(elapsed, Math::max);
+        return loaded;
+    }
+
+    public CertificateContent create(X509Certificate certificate, PrivateKey privateKey, byte[] dek) {
+        try {
+            if (writeFormatVersion == CertificateContent.FORMAT_PEM_BASE64) {
+                String certPem = PemUtils.convertToPem(certificate);
+                return new CertificateContent(Base64.getEncoder().encodeToString(certPem.getBytes()),
+                        encryptionService.encryptWithKey(dek, PemUtils.convertPrivateKeyToPem(privateKey)));
+            }
+            byte[] pkcs8 = privateKey.getEncoded();
+            try {
+                return new CertificateContent(certificate.getEncoded(), encryptionService.encryptBytesWithKey(dek, pkcs8));
+            } finally {
+                Arrays.fill(pkcs8, (byte) 0);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error encoding certificate content", e);
+        }
+    }
+
+    public byte[] loadCertificateDer(Certificate certificate) {
+        return certificateDer(load(certificate));
+    }
+
+    public X509Certificate loadCertificate(Certificate certificate) {
+        try {
+            return PemUtils.loadCertificateFromDer(loadCertificateDer(certificate));
+        } catch (Exception e) {
+            throw new RuntimeException("Error parsing certificate " + certificate.getSerialNumber(), e);
+        }
+    }
+
+    /**
+     * Base64 of the certificate PEM, the shape API responses have always carried.
+     */
+    public String loadCertificatePemBase64(Certificate certificate) {
+        CertificateContent content = load(certificate);
+        if (content.getFormatVersion() == CertificateContent.FORMAT_PEM_BASE64) {
+            return content.getCertificateData();
+        }
+        try {
+            String pem = PemUtils.derToPem("CERTIFICATE", content.getCertificateDer());
+            return Base64.getEncoder().encodeToString(pem.getBytes(StandardCharsets.US_ASCII));
+        } catch (Exception e) {
+            throw new RuntimeException("Error encoding certificate PEM", e);
+        }
+    }
+
+    public PrivateKey loadPrivateKey(Certificate certificate, byte[] dek) {
+        return privateKey(load(certificate), dek);
+    }
+
+    public Map<String, Object> getMetrics() {
+        long fetchCount = fetches.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("writeFormatVersion", writeFormatVersion);
+        metrics.put("fetches", fetchCount);
+        metrics.put("avgFetchMillis", fetchCount == 0 ? 0.0 : fetchNanos.sum() / (fetchCount * 1_000_000.0));
+        metrics.put("maxFetchMillis", maxFetchNanos.get() / 1_000_000.0);
+        metrics.put("legacyReads", legacyReads.sum());
+        return metrics;
+    }
+
+    byte[] certificateDer(CertificateContent content) {
+        return certificateDer(content.getFormatVersion(), content.getCertificateDer(), content.getCertificateData());
+    }
+
+    /**
+     * DER of a stored certificate given the raw columns, for callers that read them without the entity.
+     */
+    byte[] certificateDer(int formatVersion, byte[] certificateDer, String certificateData) {
+        if (formatVersion != CertificateContent.FORMAT_PEM_BASE64) {
+            return certificateDer;
+        }
+        legacyReads.increment();
+        try {
+            return PemUtils.loadCertificateFromPem(
+                    new String(Base64.getDecoder().decode(certificateData))).getEncoded();
+        } catch (Exception e) {
+            throw new RuntimeException("Error decoding legacy certificate content", e);
+        }
+    }
+
+    PrivateKey privateKey(CertificateContent content, byte[] dek) {
+        try {
+            if (content.getFormatVersion() == CertificateContent.FORMAT_PEM_BASE64) {
+                legacyReads.increment();
+                return PemUtils.loadPrivateKeyFromPem(encryptionService.decryptWithKey(dek, content.getEncryptedPrivateKey()));
+            }
+            byte[] pkcs8 = encryptionService.decryptBytesWithKey(dek, content.getEncryptedKeyDer());
+            try {
+                return PemUtils.loadPrivateKeyFromDer(pkcs8);
+            } finally {
+                Arrays.fill(pkcs8, (byte) 0);
+            }
+        } catch (RuntimeException re) {
+            throw re;
+        } catch (Exception e) {
+            throw new RuntimeException("Error decoding private key", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import com.pki.repository.CertificateExportRow;
+import com.pki.repository.CertificateRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes the certificate inventory straight from a forward-only database cursor to the
+ * response stream, one certificate at a time, so heap use does not depend on inventory size.
+ * Output is ordered by serial number; passing the last serial received as the cursor resumes.
+ */
+@Service
+public class CertificateExportService {
+
+    public enum Format {
+        PEM,
+        ZIP
+    }
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private CertificateContentService certificateContentService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private final LongAdder exports = new LongAdder();
+    private final LongAdder failedExports = new LongAdder();
+    private final LongAdder certificatesExported = new LongAdder();
+    private final LongAdder exportNanos = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public static Format parseFormat(String name) {
+        try {
+            return Format.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported export format: " + name);
+        }
+    }
+
+    public void export(Format format, Certificate.CertificateType type, String organization,
+                       String issuerSerialNumber, String afterSerialNumber, OutputStream out) {
+        long start = System.nanoTime();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<CertificateExportRow> rows = certificateRepository.streamForExport(
+                        afterSerialNumber == null ? "" : afterSerialNumber, type, organization, issuerSerialNumber)) {
+                    if (format == Format.ZIP) {
+                        writeZip(rows.iterator(), out);
+                    } else {
+                        writePem(rows.iterator(), out);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            exports.increment();
+        } catch (RuntimeException e) {
+            failedExports.increment();
+            throw e;
+        } finally {
+            exportNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        long total = exports.sum() + failedExports.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("exports", exports.sum());
+        metrics.put("failedExports", failedExports.sum());
+        metrics.put("certificatesExported", certificatesExported.sum());
+        metrics.put("avgExportMillis", total == 0 ? 0.0 : exportNanos.sum() / (total * 1_000_000.0));
+        return metrics;
+    }
+
+    // The "Serial:" line sits outside the PEM armor, where PEM readers ignore text
+    private void writePem(Iterator<CertificateExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII));
+        while (rows.hasNext()) {
+            CertificateExportRow row = rows.next();
+            writer.write("Serial: " + row.getSerialNumber() + "\n");
+            writer.write(toPem(row));
+            certificatesExported.increment();
+        }
+        writer.flush();
+    }
+
+    private void writeZip(Iterator<CertificateExportRow> rows, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        while (rows.hasNext()) {
+            CertificateExportRow row = rows.next();
+            zip.putNextEntry(new ZipEntry(row.getSerialNumber() + ".der"));
+            zip.write(der(row));
+            zip.closeEntry();
+            certificatesExported.increment();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    private byte[] der(CertificateExportRow row) {
+        return certificateContentService.certificateDer(row.getFormatVersion(), row.getCertificateDer(), row.getCertificateData());
+    }
+
+    private String toPem(CertificateExportRow row) {
+        try {
+            return PemUtils.derToPem("CERTIFICATE", der(row));
+        } catch (Exception e) {
+            throw new RuntimeException("Error encoding certificate " + row.getSerialNumber(), e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.pki.service;
+
+import com.pki.repository.CertificateSummary;
+
+import java.util.List;
+
+public class CertificatePage {
+
+    private final List<CertificateSummary> certificates;
+    private final String nextCursor;
+
+    public CertificatePage(List<CertificateSummary> certificates, String nextCursor) {
+        this.certificates = certificates;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CertificateSummary> getCertificates() {
+        return certificates;
+    }
+
+    /** Cursor for the following page, or null when this is the last page. */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,106 @@
+package com.pki.service;
+
+import com.pki.dto.CertificateTreeNode;
+import com.pki.repository.CertificateRepository;
+import com.pki.repository.CertificateTreeRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Builds the CA hierarchy from one recursive query over the CA rows plus one windowed query
+ * for the first end-entity children of each CA, so the query count does not grow with depth
+ * or with the number of leaves under a CA.
+ */
+@Service
+public class CertificateTreeService {
+
+    private static final String END_ENTITY = "END_ENTITY";
+
+    // Keeps the IN list of the leaf query within a sane statement size
+    private static final int PARENT_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Value("${pki.tree.max-depth:8}")
+    private int maxDepth;
+
+    @Value("${pki.tree.max-leaves-per-node:1000}")
+    private int maxLeavesPerNode;
+
+    public Optional<CertificateTreeNode> getSubtree(String serialNumber, int depth, int leafLimit) {
+        validate(depth, leafLimit);
+        List<CertificateTreeNode> roots = build(certificateRepository.findCaSubtree(serialNumber, depth), depth, leafLimit);
+        return roots.stream().findFirst();
+    }
+
+    public List<CertificateTreeNode> getForest(int depth, int leafLimit) {
+        validate(depth, leafLimit);
+        return build(certificateRepository.findCaForest(depth), depth, leafLimit);
+    }
+
+    private void validate(int depth, int leafLimit) {
+        if (depth < 0 || depth > maxDepth) {
+            throw new IllegalArgumentException("depth must be between 0 and " + maxDepth);
+        }
+        if (leafLimit < 0 || leafLimit > maxLeavesPerNode) {
+            throw new IllegalArgumentException("leafLimit must be between 0 and " + maxLeavesPerNode);
+        }
+    }
+
+    // Rows arrive ordered by depth, so every parent is placed before its children
+    private List<CertificateTreeNode> build(List<CertificateTreeRow> caRows, int depth, int leafLimit) {
+        Map<String, CertificateTreeNode> nodes = new HashMap<>();
+        List<CertificateTreeNode> roots = new ArrayList<>();
+        List<String> leafParents = new ArrayList<>();
+        for (CertificateTreeRow row : caRows) {
+            CertificateTreeNode node = toNode(row, row.getDepth());
+            node.setChildCount(row.getChildCount());
+            node.setRevokedChildCount(row.getRevokedChildCount());
+            nodes.put(node.getSerialNumber(), node);
+            CertificateTreeNode parent = row.getDepth() == 0 ? null : nodes.get(row.getIssuerSerialNumber());
+            if (parent == null) {
+                roots.add(node);
+            } else {
+                parent.getChildren().add(node);
+            }
+            if (row.getDepth() < depth && row.getChildCount() > 0 && !END_ENTITY.equals(row.getType())) {
+                leafParents.add(node.getSerialNumber());
+            }
+        }
+
+        if (leafLimit > 0) {
+            for (int from = 0; from < leafParents.size(); from += PARENT_CHUNK_SIZE) {
+                List<String> chunk = leafParents.subList(from, Math.min(from + PARENT_CHUNK_SIZE, leafParents.size()));
+                for (CertificateTreeRow row : certificateRepository.findEndEntityChildren(chunk, leafLimit)) {
+                    CertificateTreeNode parent = nodes.get(row.getIssuerSerialNumber());
+                    parent.getChildren().add(toNode(row, parent.getDepth() + 1));
+                }
+            }
+        }
+
+        nodes.values().forEach(node -> node.setTruncated(node.getChildren().size() < node.getChildCount()));
+        return roots;
+    }
+
+    private static CertificateTreeNode toNode(CertificateTreeRow row, int depth) {
+        CertificateTreeNode node = new CertificateTreeNode();
+        node.setSerialNumber(row.getSerialNumber());
+        node.setCommonName(row.getCommonName());
+        node.setOrganization(row.getOrganization());
+        node.setType(row.getType());
+        node.setIssuedAt(row.getIssuedAt());
+        node.setExpiresAt(row.getExpiresAt());
+        node.setRevoked(Boolean.TRUE.equals(row.getRevoked()));
+        node.setKeyAlgorithm(row.getKeyAlgorithm());
+        node.setDepth(depth);
+        return node;
+    }
+}
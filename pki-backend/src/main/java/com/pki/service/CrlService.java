@@ -0,0 +1,282 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import com.pki.repository.CertificateRepository;
+import org.bouncycastle.asn1.x509.CRLNumber;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves pre-signed full and delta CRLs per issuing CA. A full (base) CRL is signed on first
+ * request and then refreshed ahead of its nextUpdate; revocations only re-sign the small delta
+ * CRL in the background, listing everything revoked since the base was cut. When the delta grows
+ * past pki.crl.max-delta-entries the base is rebuilt instead.
+ */
+@Service
+public class CrlService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrlService.class);
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private IssuerContextCache issuerContextCache;
+
+    @Autowired
+    @Qualifier("crlExecutor")
+    private ExecutorService crlExecutor;
+
+    @Value("${pki.crl.base-validity-seconds:86400}")
+    private long baseValiditySeconds;
+
+    @Value("${pki.crl.delta-validity-seconds:3600}")
+    private long deltaValiditySeconds;
+
+    @Value("${pki.crl.refresh-margin-seconds:300}")
+    private long refreshMarginSeconds;
+
+    @Value("${pki.crl.max-delta-entries:1000}")
+    private int maxDeltaEntries;
+
+    @Value("${pki.crl.delta-overlap-seconds:60}")
+    private long deltaOverlapSeconds;
+
+    private final Map<String, IssuerCrls> crls = new ConcurrentHashMap<>();
+    private final Set<String> pendingDeltas = ConcurrentHashMap.newKeySet();
+
+    // CRL numbers follow epoch millis so they keep increasing across restarts
+    private final AtomicLong lastCrlNumber = new AtomicLong();
+
+    // Bumped on every revocation so a first build can tell whether one raced it
+    private final AtomicLong revocations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder baseBuilds = new LongAdder();
+    private final LongAdder deltaBuilds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+
+    /** Current full CRL, or empty when the serial number is not a CA in this PKI. */
+    public Optional<SignedCrl> getFullCrl(String issuerSerialNumber) {
+        return getIssuerCrls(issuerSerialNumber).map(IssuerCrls::getBase);
+    }
+
+    /** Current delta CRL against the full CRL, or empty when the serial number is not a CA. */
+    public Optional<SignedCrl> getDeltaCrl(String issuerSerialNumber) {
+        return getIssuerCrls(issuerSerialNumber).map(IssuerCrls::getDelta);
+    }
+
+    /**
+     * Called after a revocation is saved. Re-signs the issuer's delta CRL in the background;
+     * several revocations in a row are coalesced into one rebuild.
+     */
+    public void onRevocation(Certificate revoked) {
+        revocations.incrementAndGet();
+        // A revoked CA can no longer sign its own CRLs
+        crls.remove(revoked.getSerialNumber());
+        if (revoked.getIssuerSerialNumber() != null) {
+            scheduleDelta(revoked.getIssuerSerialNumber());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pki.crl.refresh-check-ms:60000}")
+    void refreshExpiring() {
+        Instant threshold = Instant.now().plusSeconds(refreshMarginSeconds);
+        crls.forEach((issuer, current) -> {
+            if (current.getBase().getNextUpdate().isBefore(threshold)) {
+                submit(issuer, () -> crls.replace(issuer, current, buildAll(issuer)));
+            } else if (current.getDelta().getNextUpdate().isBefore(threshold)) {
+                submit(issuer, () -> rebuildDelta(issuer));
+            }
+        });
+    }
+
+    public Map<String, Object> getMetrics() {
+        long builds = baseBuilds.sum() + deltaBuilds.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("issuers", crls.size());
+        metrics.put("hits", hits.sum());
+        metrics.put("baseBuilds", baseBuilds.sum());
+        metrics.put("deltaBuilds", deltaBuilds.sum());
+        metrics.put("avgBuildMillis", builds == 0 ? 0.0 : buildNanos.sum() / (builds * 1_000_000.0));
+        metrics.put("pendingDeltas", pendingDeltas.size());
+        return metrics;
+    }
+
+    private Optional<IssuerCrls> getIssuerCrls(String issuerSerialNumber) {
+        IssuerCrls cached = crls.get(issuerSerialNumber);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        Optional<Certificate> issuer = certificateRepository.findBySerialNumber(issuerSerialNumber);
+        if (issuer.isEmpty() || issuer.get().getType() == Certificate.CertificateType.END_ENTITY) {
+            return Optional.empty();
+        }
+        // Built outside the map so signing never holds a map bin lock
+        long revocationsBefore = revocations.get();
+        IssuerCrls built = buildAll(issuerSerialNumber);
+        IssuerCrls existing = crls.putIfAbsent(issuerSerialNumber, built);
+        if (existing != null) {
+            return Optional.of(existing);
+        }
+        // A revocation that committed during the build found no entry to schedule a delta for
+        if (revocations.get() != revocationsBefore) {
+            scheduleDelta(issuerSerialNumber);
+        }
+        return Optional.of(built);
+    }
+
+    private void scheduleDelta(String issuerSerialNumber) {
+        if (!crls.containsKey(issuerSerialNumber) || !pendingDeltas.add(issuerSerialNumber)) {
+            return;
+        }
+        submit(issuerSerialNumber, () -> {
+            // Cleared before the build so a revocation landing mid-build schedules another pass
+            pendingDeltas.remove(issuerSerialNumber);
+            rebuildDelta(issuerSerialNumber);
+        });
+    }
+
+    // All rebuilds run on the single CRL thread, so updates to one issuer never interleave
+    private void submit(String issuerSerialNumber, Runnable rebuild) {
+        try {
+            crlExecutor.execute(() -> {
+                try {
+                    rebuild.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Dropping cached CRLs for issuer {}: {}", issuerSerialNumber, e.getMessage());
+                    crls.remove(issuerSerialNumber);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingDeltas.remove(issuerSerialNumber);
+            crls.remove(issuerSerialNumber);
+        }
+    }
+
+    private void rebuildDelta(String issuerSerialNumber) {
+        IssuerCrls current = crls.get(issuerSerialNumber);
+        if (current == null) {
+            return;
+        }
+        List<Certificate> changes = certificateRepository
+                .findByIssuerSerialNumberAndRevokedTrueAndRevokedAtGreaterThanEqual(issuerSerialNumber, current.getDeltaSince());
+        if (changes.size() > maxDeltaEntries) {
+            crls.replace(issuerSerialNumber, current, buildAll(issuerSerialNumber));
+            return;
+        }
+        IssuerSigningContext issuer = issuerContextCache.get(issuerSerialNumber);
+        SignedCrl delta = sign(issuer, changes, current.getBase().getCrlNumber(), deltaValiditySeconds);
+        crls.replace(issuerSerialNumber, current, new IssuerCrls(current.getBase(), delta, current.getDeltaSince()));
+    }
+
+    private IssuerCrls buildAll(String issuerSerialNumber) {
+        IssuerSigningContext issuer = issuerContextCache.get(issuerSerialNumber);
+        // revokedAt is stamped before the revocation commits, so one stamped just before this
+        // point can still miss the query below; deltas reach back deltaOverlapSeconds further to
+        // pick those up, at the cost of repeating a few base entries
+        LocalDateTime deltaSince = LocalDateTime.now().minusSeconds(deltaOverlapSeconds);
+        List<Certificate> revoked = certificateRepository.findByIssuerSerialNumberAndRevokedTrue(issuerSerialNumber);
+        SignedCrl base = sign(issuer, revoked, null, baseValiditySeconds);
+        SignedCrl delta = sign(issuer, Collections.emptyList(), base.getCrlNumber(), deltaValiditySeconds);
+        return new IssuerCrls(base, delta, deltaSince);
+    }
+
+    private SignedCrl sign(IssuerSigningContext issuer, List<Certificate> revoked, BigInteger baseCrlNumber,
+                           long validitySeconds) {
+        try {
+            long start = System.nanoTime();
+            Instant thisUpdate = Instant.now();
+            Instant nextUpdate = thisUpdate.plusSeconds(validitySeconds);
+            BigInteger crlNumber = BigInteger.valueOf(nextCrlNumber());
+
+            X509v2CRLBuilder crlBuilder = new X509v2CRLBuilder(issuer.getSubjectName(), Date.from(thisUpdate));
+            crlBuilder.setNextUpdate(Date.from(nextUpdate));
+            // No reason is recorded at revocation, so entries carry no reasonCode extension
+            for (Certificate certificate : revoked) {
+                crlBuilder.addCRLEntry(new BigInteger(certificate.getSerialNumber()),
+                        Date.from(certificate.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant()),
+                        (Extensions) null);
+            }
+
+            crlBuilder.addExtension(Extension.authorityKeyIdentifier, false,
+                    new JcaX509ExtensionUtils().createAuthorityKeyIdentifier(issuer.getCertificate()));
+            crlBuilder.addExtension(Extension.cRLNumber, false, new CRLNumber(crlNumber));
+            if (baseCrlNumber != null) {
+                crlBuilder.addExtension(Extension.deltaCRLIndicator, true, new CRLNumber(baseCrlNumber));
+            }
+
+            ContentSigner contentSigner = new JcaContentSignerBuilder(issuer.getSignatureAlgorithm())
+                    .setProvider("BC").build(issuer.getPrivateKey());
+            X509CRLHolder crl = crlBuilder.build(contentSigner);
+
+            SignedCrl signed = new SignedCrl(crl.getEncoded(), PemUtils.convertCrlToPem(crl), crlNumber,
+                    baseCrlNumber, thisUpdate, nextUpdate, revoked.size());
+            buildNanos.add(System.nanoTime() - start);
+            (baseCrlNumber == null ? baseBuilds : deltaBuilds).increment();
+            return signed;
+        } catch (RuntimeException re) {
+            throw re;
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating CRL", e);
+        }
+    }
+
+    private long nextCrlNumber() {
+        return lastCrlNumber.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+    }
+
+    private static final class IssuerCrls {
+        private final SignedCrl base;
+        private final SignedCrl delta;
+        private final LocalDateTime deltaSince;
+
+        IssuerCrls(SignedCrl base, SignedCrl delta, LocalDateTime deltaSince) {
+            this.base = base;
+            this.delta = delta;
+            this.deltaSince = deltaSince;
+        }
+
+        SignedCrl getBase() {
+            return base;
+        }
+
+        SignedCrl getDelta() {
+            return delta;
+        }
+
+        LocalDateTime getDeltaSince() {
+            return deltaSince;
+        }
+    }
+}
@@ -1,45 +1,47 @@
 package com.pki.service;
 
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
-import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
-import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
-import java.security.spec.KeySpec;
 import java.util.Base64;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class EncryptionService {
 
-    @Value("${PKI_MASTER_KEY:${pki.master-key:}}")
-    private String masterKey;
+    @Autowired
+    private MasterKeyHolder masterKeyHolder;
 
-    @Value("${pki.master-salt:default_salt_value}")
-    private String masterSalt;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // AES-GCM under organization DEKs (private keys, cached keystores)
+    private Timer encryptTimer;
+    private Timer decryptTimer;
 
     private static final String ALGORITHM = "AES";
     private static final String TRANSFORMATION = "AES/GCM/NoPadding";
     private static final int GCM_IV_LENGTH = 12; // 96 bits
     private static final int GCM_TAG_LENGTH = 128; // 128 bits
-    private static final int PBKDF2_ITERATIONS = 100_000;
 
-    private SecretKey getSecretKey() throws Exception {
-        if (masterKey == null || masterKey.isEmpty()) {
-            throw new IllegalStateException("Master key is not configured. Set environment variable PKI_MASTER_KEY or pki.master-key property.");
-        }
+    @PostConstruct
+    void init() {
+        encryptTimer = Timer.builder("pki.encryption").tag("operation", "encrypt").register(meterRegistry);
+        decryptTimer = Timer.builder("pki.encryption").tag("operation", "decrypt").register(meterRegistry);
+    }
 
-        // Derive a 256-bit AES key from the masterKey using PBKDF2WithHmacSHA256
-        byte[] saltBytes = masterSalt.getBytes(StandardCharsets.UTF_8);
-        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-        KeySpec spec = new PBEKeySpec(masterKey.toCharArray(), saltBytes, PBKDF2_ITERATIONS, 256);
-        byte[] keyBytes = factory.generateSecret(spec).getEncoded();
-        return new SecretKeySpec(keyBytes, ALGORITHM);
+    private SecretKey getSecretKey() {
+        // 256-bit AES key derived once from the master key with PBKDF2WithHmacSHA256
+        return masterKeyHolder.getKey();
     }
 
     public String encryptPrivateKey(String privateKeyPem) {
@@ -68,6 +70,15 @@ public class EncryptionService {
     }
 
     public String encryptWithKey(byte[] keyBytes, String privateKeyPem) {
+        return Base64.getEncoder().encodeToString(
+                encryptBytesWithKey(keyBytes, privateKeyPem.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * AES-GCM over raw bytes, returned as [iv||ciphertext] without any text encoding.
+     */
+    public byte[] encryptBytesWithKey(byte[] keyBytes, byte[] plaintext) {
+        long start = System.nanoTime();
         try {
             SecretKeySpec secretKey = new SecretKeySpec(keyBytes, ALGORITHM);
 
@@ -79,15 +90,14 @@ public class EncryptionService {
             GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
             cipher.init(Cipher.ENCRYPT_MODE, secretKey, spec);
 
-            byte[] encryptedBytes = cipher.doFinal(privateKeyPem.getBytes(StandardCharsets.UTF_8));
-
-            byte[] combined = new byte[iv.length + encryptedBytes.length];
+            byte[] combined = new byte[iv.length + cipher.getOutputSize(plaintext.length)];
             System.arraycopy(iv, 0, combined, 0, iv.length);
-            System.arraycopy(encryptedBytes, 0, combined, iv.length, encryptedBytes.length);
-
-            return Base64.getEncoder().encodeToString(combined);
+            cipher.doFinal(plaintext, 0, plaintext.length, combined, iv.length);
+            return combined;
         } catch (Exception e) {
             throw new RuntimeException("Error encrypting private key with provided key", e);
+        } finally {
+            encryptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -118,28 +128,31 @@ public class EncryptionService {
     }
 
     public String decryptWithKey(byte[] keyBytes, String encryptedPrivateKey) {
+        return new String(decryptBytesWithKey(keyBytes, Base64.getDecoder().decode(encryptedPrivateKey)),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reverses {@link #encryptBytesWithKey}; the caller owns (and should clear) the returned plaintext.
+     */
+    public byte[] decryptBytesWithKey(byte[] keyBytes, byte[] combined) {
+        long start = System.nanoTime();
         try {
             SecretKeySpec secretKey = new SecretKeySpec(keyBytes, ALGORITHM);
 
-            byte[] combined = Base64.getDecoder().decode(encryptedPrivateKey);
             if (combined.length < GCM_IV_LENGTH) {
                 throw new RuntimeException("Invalid encrypted data");
             }
 
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            System.arraycopy(combined, 0, iv, 0, iv.length);
-
-            byte[] cipherText = new byte[combined.length - iv.length];
-            System.arraycopy(combined, iv.length, cipherText, 0, cipherText.length);
-
             Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
+            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, combined, 0, GCM_IV_LENGTH);
             cipher.init(Cipher.DECRYPT_MODE, secretKey, spec);
 
-            byte[] decryptedBytes = cipher.doFinal(cipherText);
-            return new String(decryptedBytes, StandardCharsets.UTF_8);
+            return cipher.doFinal(combined, GCM_IV_LENGTH, combined.length - GCM_IV_LENGTH);
         } catch (Exception e) {
             throw new RuntimeException("Error decrypting private key with provided key", e);
+        } finally {
+            decryptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
-}
\ No newline at end of file
+}
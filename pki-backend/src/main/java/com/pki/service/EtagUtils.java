@@ -0,0 +1,22 @@
+package com.pki.service;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Strong HTTP entity tags for the encoded artifacts served as-is (CRLs, OCSP responses, keystores).
+ */
+public final class EtagUtils {
+
+    private EtagUtils() {}
+
+    /** Quoted hex of the first 128 bits of the content's SHA-256. */
+    public static String etagOf(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (Exception e) {
+            throw new RuntimeException("Error computing ETag", e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of one asynchronous issuance request. Fields are written by the job thread and read
+ * by status polls, so they are volatile.
+ */
+public class IssuanceJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile Certificate certificate;
+    private volatile String error;
+
+    public IssuanceJob(String id) {
+        this.id = id;
+    }
+
+    void markRunning() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void markSucceeded(Certificate certificate) {
+        this.certificate = certificate;
+        completedAt = LocalDateTime.now();
+        status = Status.SUCCEEDED;
+    }
+
+    void markFailed(String error) {
+        this.error = error;
+        completedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public Certificate getCertificate() {
+        return certificate;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,123 @@
+package com.pki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pki.dto.CertificateRequest;
+import com.pki.entity.Certificate;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs certificate issuance off the request thread. Queued and running jobs are held
+ * until they finish (their number is bounded by the executor's pool and queue); finished
+ * jobs are kept for pki.jobs.retention-seconds, up to pki.jobs.max-retained of them, so
+ * clients can poll for the result.
+ */
+@Service
+public class IssuanceJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IssuanceJobService.class);
+
+    @Autowired
+    private CertificateService certificateService;
+
+    @Autowired
+    @Qualifier("issuanceJobExecutor")
+    private ThreadPoolExecutor issuanceJobExecutor;
+
+    @Value("${pki.jobs.max-retained:10000}")
+    private long maxRetainedJobs;
+
+    @Value("${pki.jobs.retention-seconds:3600}")
+    private long retentionSeconds;
+
+    // Only finished jobs go in the cache, so size eviction never drops one a client is still waiting on
+    private final Map<String, IssuanceJob> activeJobs = new ConcurrentHashMap<>();
+
+    private Cache<String, IssuanceJob> jobs;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        jobs = Caffeine.newBuilder()
+                .maximumSize(maxRetainedJobs)
+                .expireAfterWrite(Duration.ofSeconds(retentionSeconds))
+                .build();
+    }
+
+    /**
+     * Queues the request and returns its job. Throws RejectedExecutionException when the
+     * job queue is full.
+     */
+    public IssuanceJob submit(CertificateRequest request) {
+        IssuanceJob job = new IssuanceJob(UUID.randomUUID().toString());
+        activeJobs.put(job.getId(), job);
+        try {
+            issuanceJobExecutor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(job.getId());
+            rejected.increment();
+            throw e;
+        }
+        submitted.increment();
+        return job;
+    }
+
+    public Optional<IssuanceJob> getJob(String id) {
+        // Active first: a finishing job is put in the cache before it leaves the active map
+        IssuanceJob job = activeJobs.get(id);
+        return Optional.ofNullable(job != null ? job : jobs.getIfPresent(id));
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("submitted", submitted.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("succeeded", succeeded.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("queued", issuanceJobExecutor.getQueue().size());
+        metrics.put("queueCapacity", issuanceJobExecutor.getQueue().size() + issuanceJobExecutor.getQueue().remainingCapacity());
+        metrics.put("running", issuanceJobExecutor.getActiveCount());
+        metrics.put("active", activeJobs.size());
+        metrics.put("retained", jobs.estimatedSize());
+        return metrics;
+    }
+
+    private void run(IssuanceJob job, CertificateRequest request) {
+        job.markRunning();
+        try {
+            Certificate certificate = certificateService.issueCertificate(request);
+            job.markSucceeded(certificate);
+            succeeded.increment();
+        } catch (IllegalArgumentException e) {
+            job.markFailed(e.getMessage());
+            failed.increment();
+        } catch (Exception e) {
+            logger.error("Issuance job {} failed", job.getId(), e);
+            job.markFailed("Error creating certificate: " + e.getMessage());
+            failed.increment();
+        } finally {
+            jobs.put(job.getId(), job);
+            activeJobs.remove(job.getId());
+        }
+    }
+}
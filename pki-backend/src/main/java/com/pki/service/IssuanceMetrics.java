@@ -0,0 +1,68 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers for certificate issuance: {@code pki.issuance} per request and
+ * {@code pki.issuance.stage} per step (issuer context, key pair, signing, DEK, encoding,
+ * database save), both tagged by certificate type and key algorithm. Timers are registered
+ * once per tag combination and reused.
+ */
+@Component
+public class IssuanceMetrics {
+
+    public static final String STAGE_ISSUER = "issuer";
+    public static final String STAGE_KEYGEN = "keygen";
+    public static final String STAGE_SIGN = "sign";
+    public static final String STAGE_DEK = "dek";
+    public static final String STAGE_ENCODE = "encode";
+    public static final String STAGE_PERSIST = "persist";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public <T> T stage(String stage, Certificate.CertificateType type, Certificate.KeyAlgorithm keyAlgorithm,
+                       Callable<T> work) throws Exception {
+        return stageTimer(stage, type, keyAlgorithm).recordCallable(work);
+    }
+
+    public Timer stageTimer(String stage, Certificate.CertificateType type, Certificate.KeyAlgorithm keyAlgorithm) {
+        return timer("pki.issuance.stage", stage, type, keyAlgorithm, null);
+    }
+
+    public void recordIssuance(Certificate.CertificateType type, Certificate.KeyAlgorithm keyAlgorithm,
+                               boolean success, long nanos) {
+        timer("pki.issuance", null, type, keyAlgorithm, success ? "success" : "error")
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String stage, Certificate.CertificateType type,
+                        Certificate.KeyAlgorithm keyAlgorithm, String outcome) {
+        String typeTag = type == null ? "unknown" : type.name();
+        String algorithmTag = keyAlgorithm == null ? "unknown" : keyAlgorithm.name();
+        String key = name + ':' + stage + ':' + typeTag + ':' + algorithmTag + ':' + outcome;
+        return timers.computeIfAbsent(key, k -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .tag("type", typeTag)
+                    .tag("algorithm", algorithmTag);
+            if (stage != null) {
+                builder.tag("stage", stage);
+            }
+            if (outcome != null) {
+                builder.tag("outcome", outcome);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+}
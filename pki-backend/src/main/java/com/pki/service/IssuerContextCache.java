@@ -0,0 +1,162 @@
+package com.pki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pki.entity.Certificate;
+import com.pki.entity.CertificateContent;
+import com.pki.repository.CertificateRepository;
+import com.pki.repository.CertificateTreeRow;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of issuer signing contexts keyed by issuer serial number, so repeated issuance
+ * under the same CA decrypts and parses the CA key and certificate once. Entries expire at
+ * the CA's notAfter (or the configured TTL). Revoking a CA drops its context and those of every
+ * CA below it, and a context is only loaded for a CA whose whole chain is unrevoked. Evicted
+ * contexts are left to the garbage collector, as another thread may still be signing with one.
+ */
+@Component
+public class IssuerContextCache {
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private KeyManagementService keyManagementService;
+
+    @Autowired
+    private CertificateContentService certificateContentService;
+
+    @Value("${pki.issuer-cache.max-size:256}")
+    private long maxSize;
+
+    @Value("${pki.issuer-cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    private Cache<String, IssuerSigningContext> contexts;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        contexts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, IssuerSigningContext>() {
+                    @Override
+                    public long expireAfterCreate(String serialNumber, IssuerSigningContext context, long currentTime) {
+                        long untilNotAfter = Duration.between(Instant.now(), context.getNotAfter()).toNanos();
+                        return Math.max(0, Math.min(untilNotAfter, Duration.ofSeconds(ttlSeconds).toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String serialNumber, IssuerSigningContext context, long currentTime, long currentDuration) {
+                        return expireAfterCreate(serialNumber, context, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String serialNumber, IssuerSigningContext context, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the signing context for the issuer, loading it on a miss. Concurrent misses for
+     * the same issuer wait for a single load.
+     */
+    public IssuerSigningContext get(String issuerSerialNumber) {
+        return contexts.get(issuerSerialNumber, this::load);
+    }
+
+    /**
+     * Drops the revoked certificate's context and, for a CA, the contexts of every CA below it.
+     */
+    public void onRevocation(Certificate certificate) {
+        contexts.invalidate(certificate.getSerialNumber());
+        if (certificate.getType() != Certificate.CertificateType.END_ENTITY) {
+            // Unbounded depth: the recursion stops at the bottom of the CA tree
+            for (CertificateTreeRow row : certificateRepository.findCaSubtree(certificate.getSerialNumber(), Integer.MAX_VALUE)) {
+                contexts.invalidate(row.getSerialNumber());
+            }
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        CacheStats stats = contexts.stats();
+        long loadCount = loads.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", contexts.estimatedSize());
+        metrics.put("maxSize", maxSize);
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("loads", loadCount);
+        metrics.put("avgLoadMillis", loadCount == 0 ? 0.0 : loadNanos.sum() / (loadCount * 1_000_000.0));
+        return metrics;
+    }
+
+    private IssuerSigningContext load(String issuerSerialNumber) {
+        long start = System.nanoTime();
+        Certificate issuerCert = certificateRepository.findBySerialNumber(issuerSerialNumber)
+                .orElseThrow(() -> new RuntimeException("Issuer certificate not found"));
+        if (issuerCert.isRevoked()) {
+            throw new RuntimeException("Issuer certificate is revoked");
+        }
+        if (issuerCert.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Issuer certificate has expired");
+        }
+        String ancestor = issuerCert.getIssuerSerialNumber();
+        while (ancestor != null) {
+            Certificate ancestorCert = certificateRepository.findBySerialNumber(ancestor)
+                    .orElseThrow(() -> new RuntimeException("Issuer chain is incomplete"));
+            if (ancestorCert.isRevoked()) {
+                throw new RuntimeException("Issuer chain contains a revoked certificate");
+            }
+            ancestor = ancestorCert.getIssuerSerialNumber();
+        }
+
+        try {
+            CertificateContent content = certificateContentService.load(issuerCert);
+
+            // Get issuer private key (use issuer's organization DEK)
+            byte[] issuerDek = keyManagementService.getDekForOrganization(issuerCert.getOrganization());
+            PrivateKey issuerPrivateKey;
+            try {
+                issuerPrivateKey = certificateContentService.privateKey(content, issuerDek);
+            } finally {
+                Arrays.fill(issuerDek, (byte) 0);
+            }
+
+            X509Certificate issuerX509Cert = PemUtils.loadCertificateFromDer(certificateContentService.certificateDer(content));
+
+            IssuerSigningContext context = new IssuerSigningContext(issuerSerialNumber,
+                    issuerCert.getOrganization(), issuerPrivateKey, issuerX509Cert);
+            loads.increment();
+            loadNanos.add(System.nanoTime() - start);
+            return context;
+        } catch (RuntimeException re) {
+            throw re;
+        } catch (Exception e) {
+            throw new RuntimeException("Error loading issuer signing context", e);
+        }
+    }
+}
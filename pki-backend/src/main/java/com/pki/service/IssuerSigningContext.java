@@ -0,0 +1,59 @@
+package com.pki.service;
+
+import org.bouncycastle.asn1.x500.X500Name;
+
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+
+/**
+ * Ready-to-sign material for a CA certificate: decrypted private key, parsed certificate and
+ * subject name. Instances are shared across issuance threads and must not be mutated.
+ */
+public class IssuerSigningContext {
+
+    private final String serialNumber;
+    private final String organization;
+    private final PrivateKey privateKey;
+    private final X509Certificate certificate;
+    private final X500Name subjectName;
+    private final String signatureAlgorithm;
+
+    public IssuerSigningContext(String serialNumber, String organization, PrivateKey privateKey,
+                                X509Certificate certificate) {
+        this.serialNumber = serialNumber;
+        this.organization = organization;
+        this.privateKey = privateKey;
+        this.certificate = certificate;
+        this.subjectName = X500Name.getInstance(certificate.getSubjectX500Principal().getEncoded());
+        this.signatureAlgorithm = KeyAlgorithms.signatureAlgorithm(privateKey);
+    }
+
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public String getOrganization() {
+        return organization;
+    }
+
+    public PrivateKey getPrivateKey() {
+        return privateKey;
+    }
+
+    public X509Certificate getCertificate() {
+        return certificate;
+    }
+
+    public X500Name getSubjectName() {
+        return subjectName;
+    }
+
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public Instant getNotAfter() {
+        return certificate.getNotAfter().toInstant();
+    }
+}
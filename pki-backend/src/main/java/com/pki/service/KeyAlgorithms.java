@@ -0,0 +1,106 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate.KeyAlgorithm;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.interfaces.ECKey;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * Key generation and signature algorithm selection for the supported issuance key types.
+ */
+public final class KeyAlgorithms {
+
+    static {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    private KeyAlgorithms() {}
+
+    public static KeyAlgorithm parse(String name) {
+        if (name == null || name.isBlank()) {
+            return KeyAlgorithm.RSA;
+        }
+        try {
+            return KeyAlgorithm.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported key algorithm: " + name);
+        }
+    }
+
+    public static int defaultKeySize(KeyAlgorithm algorithm) {
+        switch (algorithm) {
+            case EC:
+                return 256;
+            case ED25519:
+                return 255;
+            default:
+                return 2048;
+        }
+    }
+
+    public static void validateKeySize(KeyAlgorithm algorithm, int keySize) {
+        boolean valid;
+        switch (algorithm) {
+            case RSA:
+                valid = keySize == 2048 || keySize == 3072 || keySize == 4096;
+                break;
+            case EC:
+                valid = keySize == 256 || keySize == 384;
+                break;
+            case ED25519:
+                valid = keySize == 255;
+                break;
+            default:
+                valid = false;
+        }
+        if (!valid) {
+            throw new IllegalArgumentException("Unsupported key size " + keySize + " for " + algorithm);
+        }
+    }
+
+    public static KeyPair generate(KeyAlgorithm algorithm, int keySize) {
+        try {
+            KeyPairGenerator keyPairGenerator;
+            switch (algorithm) {
+                case EC:
+                    keyPairGenerator = KeyPairGenerator.getInstance("EC", "BC");
+                    keyPairGenerator.initialize(new ECGenParameterSpec(keySize == 384 ? "secp384r1" : "secp256r1"));
+                    break;
+                case ED25519:
+                    keyPairGenerator = KeyPairGenerator.getInstance("Ed25519", "BC");
+                    break;
+                default:
+                    keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+                    keyPairGenerator.initialize(keySize);
+            }
+            return keyPairGenerator.generateKeyPair();
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating " + algorithm + " key pair", e);
+        }
+    }
+
+    /**
+     * Signature algorithm used when the given key signs a certificate, so an RSA issuer can
+     * sign an EC subject and vice versa.
+     */
+    public static String signatureAlgorithm(PrivateKey signingKey) {
+        switch (signingKey.getAlgorithm()) {
+            case "RSA":
+                return "SHA256WithRSA";
+            case "EC":
+            case "ECDSA":
+                int fieldSize = ((ECKey) signingKey).getParams().getCurve().getField().getFieldSize();
+                return fieldSize > 256 ? "SHA384withECDSA" : "SHA256withECDSA";
+            case "Ed25519":
+            case "EdDSA":
+                return "Ed25519";
+            default:
+                throw new IllegalArgumentException("Unsupported signing key algorithm: " + signingKey.getAlgorithm());
+        }
+    }
+}
@@ -1,24 +1,41 @@
 package com.pki.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.pki.entity.OrganizationKey;
 import com.pki.repository.OrganizationKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
-import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
-import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
-import java.security.spec.KeySpec;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Base64;
-import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class KeyManagementService {
@@ -29,76 +46,263 @@ public class KeyManagementService {
     @Autowired
     private EncryptionService encryptionService;
 
-    @Value("${PKI_MASTER_KEY:${pki.master-key:}}")
-    private String masterKey;
+    @Autowired
+    private MasterKeyHolder masterKeyHolder;
+
+    @Autowired
+    private KeystoreArtifactCache keystoreArtifactCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${pki.dek-cache.max-size:1024}")
+    private long dekCacheMaxSize;
+
+    @Value("${pki.dek-cache.ttl-seconds:600}")
+    private long dekCacheTtlSeconds;
 
-    @Value("${pki.master-salt:default_salt_value}")
-    private String masterSalt;
+    @Value("${pki.dek-cache.lock-stripes:64}")
+    private int lockStripes;
 
-    private static final int PBKDF2_ITERATIONS = 100_000;
     private static final int GCM_IV_LENGTH = 12;
     private static final int GCM_TAG_LENGTH = 128;
 
-    private SecretKey deriveKek() throws Exception {
-        if (masterKey == null || masterKey.isEmpty()) {
-            throw new IllegalStateException("Master key is not configured. Set PKI_MASTER_KEY env var.");
+    private final SecureRandom random = new SecureRandom();
+
+    private Cache<String, CachedDek> dekCache;
+    private ReentrantLock[] organizationLocks;
+    private TransactionTemplate transactionTemplate;
+
+    private final LongAdder unwraps = new LongAdder();
+    private final LongAdder unwrapNanos = new LongAdder();
+    private final AtomicLong maxUnwrapNanos = new AtomicLong();
+    private final LongAdder creations = new LongAdder();
+
+    private Timer unwrapTimer;
+    private Counter creationCounter;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        dekCache = Caffeine.newBuilder()
+                .maximumSize(dekCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(dekCacheTtlSeconds))
+                .removalListener((String organization, CachedDek dek, RemovalCause cause) -> {
+                    if (dek != null) {
+                        dek.destroy();
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, dekCache, "dek");
+        unwrapTimer = Timer.builder("pki.dek.unwrap").register(meterRegistry);
+        creationCounter = Counter.builder("pki.dek.created").register(meterRegistry);
+
+        organizationLocks = new ReentrantLock[Math.max(1, lockStripes)];
+        for (int i = 0; i < organizationLocks.length; i++) {
+            organizationLocks[i] = new ReentrantLock();
         }
-        byte[] saltBytes = masterSalt.getBytes(StandardCharsets.UTF_8);
-        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-        KeySpec spec = new PBEKeySpec(masterKey.toCharArray(), saltBytes, PBKDF2_ITERATIONS, 256);
-        byte[] keyBytes = factory.generateSecret(spec).getEncoded();
-        return new SecretKeySpec(keyBytes, "AES");
     }
 
-    public synchronized byte[] getDekForOrganization(String organization) {
+    private SecretKey deriveKek() {
+        return masterKeyHolder.getKey();
+    }
+
+    /**
+     * Returns a copy of the organization's DEK, unwrapping or creating it on a cache miss.
+     * Only the organization's lock stripe is held while the DEK is loaded. The caller owns the
+     * copy and should zero it once done.
+     */
+    public byte[] getDekForOrganization(String organization) {
+        byte[] cached = copyFromCache(organization);
+        if (cached != null) {
+            return cached;
+        }
+
+        ReentrantLock lock = lockFor(organization);
+        lock.lock();
+        try {
+            // Re-check without touching the hit/miss stats
+            CachedDek loaded = dekCache.policy().getIfPresentQuietly(organization);
+            cached = loaded == null ? null : loaded.copy();
+            if (cached != null) {
+                return cached;
+            }
+
+            byte[] dek = organizationKeyRepository.findByOrganization(organization)
+                    .map(this::unwrapDek)
+                    .orElseGet(() -> createDek(organization));
+            dekCache.put(organization, new CachedDek(dek));
+            return dek;
+        } catch (RuntimeException re) {
+            throw re;
+        } catch (Exception e) {
+            throw new RuntimeException("Error getting DEK for org", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-wraps every organization DEK under the KEK derived from newMasterKey in one transaction;
+     * once it commits, installs that KEK and drops the cached DEKs and keystores. Every lock stripe is held throughout, so
+     * no DEK is created or unwrapped against the old KEK meanwhile. PKI_MASTER_KEY must be set to
+     * the new value before the next restart. Returns the number of DEKs re-wrapped.
+     */
+    public int rotateMasterKey(String newMasterKey) {
+        byte[] newKek = masterKeyHolder.derive(newMasterKey);
+        for (ReentrantLock lock : organizationLocks) {
+            lock.lock();
+        }
         try {
-            Optional<OrganizationKey> existing = organizationKeyRepository.findByOrganization(organization);
-            if (existing.isPresent()) {
-                OrganizationKey ok = existing.get();
-                SecretKey kek = deriveKek();
-                String wrapped = ok.getWrappedDek();
-                byte[] combined = Base64.getDecoder().decode(wrapped);
-                if (combined.length < GCM_IV_LENGTH) throw new RuntimeException("Wrapped DEK invalid");
-                byte[] iv = new byte[GCM_IV_LENGTH];
-                System.arraycopy(combined, 0, iv, 0, iv.length);
-                byte[] cipherText = new byte[combined.length - iv.length];
-                System.arraycopy(combined, iv.length, cipherText, 0, cipherText.length);
-
-                Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-                GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-                cipher.init(Cipher.DECRYPT_MODE, kek, spec);
-                byte[] dek = cipher.doFinal(cipherText);
-                return dek;
+            SecretKey oldKey = deriveKek();
+            SecretKey newKey = new SecretKeySpec(newKek, "AES");
+            Integer rewrapped = transactionTemplate.execute(status -> {
+                List<OrganizationKey> keys = organizationKeyRepository.findAll();
+                for (OrganizationKey ok : keys) {
+                    byte[] dek = unwrap(ok.getWrappedDek(), oldKey);
+                    try {
+                        ok.setWrappedDek(wrap(dek, newKey));
+                    } finally {
+                        Arrays.fill(dek, (byte) 0);
+                    }
+                }
+                organizationKeyRepository.saveAll(keys);
+                // Only switch once the new wrapping is durable; a failed commit keeps the old KEK
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        masterKeyHolder.install(newKek);
+                        evictAllDeks();
+                        keystoreArtifactCache.invalidateAll();
+                    }
+                });
+                return keys.size();
+            });
+            return rewrapped;
+        } finally {
+            Arrays.fill(newKek, (byte) 0);
+            for (int i = organizationLocks.length - 1; i >= 0; i--) {
+                organizationLocks[i].unlock();
             }
+        }
+    }
 
-            SecureRandom random = new SecureRandom();
-            byte[] dek = new byte[32];
-            random.nextBytes(dek);
+    public void evictAllDeks() {
+        dekCache.invalidateAll();
+    }
 
-            SecretKey kek = deriveKek();
+    public Map<String, Object> getMetrics() {
+        CacheStats stats = dekCache.stats();
+        long unwrapCount = unwraps.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", dekCache.estimatedSize());
+        metrics.put("maxSize", dekCacheMaxSize);
+        metrics.put("ttlSeconds", dekCacheTtlSeconds);
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("unwraps", unwrapCount);
+        metrics.put("avgUnwrapMillis", unwrapCount == 0 ? 0.0 : unwrapNanos.sum() / (unwrapCount * 1_000_000.0));
+        metrics.put("maxUnwrapMillis", maxUnwrapNanos.get() / 1_000_000.0);
+        metrics.put("creations", creations.sum());
+        return metrics;
+    }
+
+    private byte[] copyFromCache(String organization) {
+        CachedDek entry = dekCache.getIfPresent(organization);
+        return entry == null ? null : entry.copy();
+    }
+
+    private ReentrantLock lockFor(String organization) {
+        return organizationLocks[(organization.hashCode() & 0x7fffffff) % organizationLocks.length];
+    }
+
+    private byte[] unwrapDek(OrganizationKey ok) {
+        long start = System.nanoTime();
+        byte[] dek = unwrap(ok.getWrappedDek(), deriveKek());
+        long elapsed = System.nanoTime() - start;
+        unwraps.increment();
+        unwrapNanos.add(elapsed);
+        unwrapTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        maxUnwrapNanos.accumulateAndGet(elapsed, Math::max);
+        return dek;
+    }
+
+    private byte[] createDek(String organization) {
+        byte[] dek = new byte[32];
+        random.nextBytes(dek);
+
+        String wrappedB64 = wrap(dek, deriveKek());
+        String dekKeyId = UUID.randomUUID().toString();
+
+        OrganizationKey ok = new OrganizationKey(organization, wrappedB64, dekKeyId, Instant.now(), "AES-GCM");
+        organizationKeyRepository.save(ok);
+        creations.increment();
+        creationCounter.increment();
+
+        return dek;
+    }
+
+    // Wrapped form is Base64 of [iv||ciphertext]
+    private String wrap(byte[] dek, SecretKey kek) {
+        try {
             byte[] iv = new byte[GCM_IV_LENGTH];
             random.nextBytes(iv);
             Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
             GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            SecretKeySpec kekSpec = new SecretKeySpec(kek.getEncoded(), "AES");
-            cipher.init(Cipher.ENCRYPT_MODE, kekSpec, spec);
+            cipher.init(Cipher.ENCRYPT_MODE, kek, spec);
             byte[] wrapped = cipher.doFinal(dek);
 
             byte[] combined = new byte[iv.length + wrapped.length];
             System.arraycopy(iv, 0, combined, 0, iv.length);
             System.arraycopy(wrapped, 0, combined, iv.length, wrapped.length);
+            return Base64.getEncoder().encodeToString(combined);
+        } catch (Exception e) {
+            throw new RuntimeException("Error wrapping DEK for org", e);
+        }
+    }
 
-            String wrappedB64 = Base64.getEncoder().encodeToString(combined);
-            String dekKeyId = UUID.randomUUID().toString();
-
-            OrganizationKey ok = new OrganizationKey(organization, wrappedB64, dekKeyId, Instant.now(), "AES-GCM");
-            organizationKeyRepository.save(ok);
+    private byte[] unwrap(String wrapped, SecretKey kek) {
+        try {
+            byte[] combined = Base64.getDecoder().decode(wrapped);
+            if (combined.length < GCM_IV_LENGTH) throw new RuntimeException("Wrapped DEK invalid");
+            byte[] iv = new byte[GCM_IV_LENGTH];
+            System.arraycopy(combined, 0, iv, 0, iv.length);
+            byte[] cipherText = new byte[combined.length - iv.length];
+            System.arraycopy(combined, iv.length, cipherText, 0, cipherText.length);
 
-            return dek;
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
+            cipher.init(Cipher.DECRYPT_MODE, kek, spec);
+            return cipher.doFinal(cipherText);
         } catch (RuntimeException re) {
             throw re;
         } catch (Exception e) {
-            throw new RuntimeException("Error getting DEK for org", e);
+            throw new RuntimeException("Error unwrapping DEK for org", e);
+        }
+    }
+
+    // Cached entries hand out copies; once destroyed they read as a miss instead of zeroed bytes
+    private static final class CachedDek {
+        private final byte[] key;
+        private boolean destroyed;
+
+        CachedDek(byte[] key) {
+            this.key = key.clone();
+        }
+
+        synchronized byte[] copy() {
+            return destroyed ? null : key.clone();
+        }
+
+        synchronized void destroy() {
+            Arrays.fill(key, (byte) 0);
+            destroyed = true;
         }
     }
 }
@@ -0,0 +1,210 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate.KeyAlgorithm;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.KeyPair;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a queue of pre-generated key pairs per algorithm/size so issuance does not pay for
+ * key generation on the request thread. Specs are ALG:size or ALG:size:depth; without a depth
+ * pki.keypool.target-depth applies. Background workers top a queue back up to its depth once it
+ * drops to the refill threshold; an empty queue falls back to inline generation. Depth, hits and
+ * misses are published as pki.keypool.* meters tagged by algorithm and size.
+ */
+@Component
+public class KeyPairPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyPairPool.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${pki.keypool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pki.keypool.specs:RSA:2048}")
+    private List<String> specs;
+
+    @Value("${pki.keypool.target-depth:32}")
+    private int targetDepth;
+
+    @Value("${pki.keypool.refill-threshold:8}")
+    private int refillThreshold;
+
+    @Value("${pki.keypool.workers:2}")
+    private int workerCount;
+
+    private final Map<String, SpecPool> pools = new ConcurrentHashMap<>();
+    private final LongAdder unpooledGenerations = new LongAdder();
+    private ExecutorService workers;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "keypair-pool-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        for (String spec : specs) {
+            String[] parts = spec.trim().split(":");
+            if (parts.length != 2 && parts.length != 3) {
+                throw new IllegalStateException("Invalid key pool spec: " + spec);
+            }
+            KeyAlgorithm algorithm = KeyAlgorithms.parse(parts[0]);
+            int keySize = Integer.parseInt(parts[1]);
+            KeyAlgorithms.validateKeySize(algorithm, keySize);
+            int depth = parts.length == 3 ? Integer.parseInt(parts[2]) : targetDepth;
+            if (depth < 1) {
+                throw new IllegalStateException("Invalid key pool depth: " + spec);
+            }
+            SpecPool pool = new SpecPool(algorithm, keySize, depth);
+            pools.put(poolKey(pool.algorithm, pool.keySize), pool);
+            register(pool);
+            scheduleRefill(pool);
+        }
+        logger.info("Key pair pool started for {} (refill at {})", pools.keySet(), refillThreshold);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        pools.values().forEach(pool -> pool.queue.clear());
+    }
+
+    public KeyPair take(KeyAlgorithm algorithm, int keySize) {
+        SpecPool pool = pools.get(poolKey(algorithm, keySize));
+        if (pool == null) {
+            unpooledGenerations.increment();
+            return KeyAlgorithms.generate(algorithm, keySize);
+        }
+
+        KeyPair keyPair = pool.queue.poll();
+        if (keyPair == null) {
+            pool.starvations.increment();
+            keyPair = KeyAlgorithms.generate(algorithm, keySize);
+        } else {
+            pool.hits.increment();
+        }
+
+        if (pool.queue.size() <= refillThreshold) {
+            scheduleRefill(pool);
+        }
+        return keyPair;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("defaultTargetDepth", targetDepth);
+        metrics.put("refillThreshold", refillThreshold);
+        metrics.put("unpooledGenerations", unpooledGenerations.sum());
+        Map<String, Object> perSpec = new LinkedHashMap<>();
+        pools.forEach((key, pool) -> {
+            long generated = pool.generated.sum();
+            Map<String, Object> poolMetrics = new LinkedHashMap<>();
+            poolMetrics.put("depth", pool.queue.size());
+            poolMetrics.put("targetDepth", pool.targetDepth);
+            poolMetrics.put("hits", pool.hits.sum());
+            poolMetrics.put("starvations", pool.starvations.sum());
+            poolMetrics.put("generated", generated);
+            poolMetrics.put("avgGenerationMillis", generated == 0 ? 0.0 : pool.generationNanos.sum() / (generated * 1_000_000.0));
+            perSpec.put(key, poolMetrics);
+        });
+        metrics.put("pools", perSpec);
+        return metrics;
+    }
+
+    private void register(SpecPool pool) {
+        Tags tags = Tags.of("algorithm", pool.algorithm.name(), "size", String.valueOf(pool.keySize));
+        Gauge.builder("pki.keypool.depth", pool.queue, BlockingQueue::size).tags(tags).register(meterRegistry);
+        Gauge.builder("pki.keypool.target.depth", pool, p -> p.targetDepth).tags(tags).register(meterRegistry);
+        FunctionCounter.builder("pki.keypool.takes", pool.hits, LongAdder::sum)
+                .tags(tags).tag("outcome", "hit").register(meterRegistry);
+        FunctionCounter.builder("pki.keypool.takes", pool.starvations, LongAdder::sum)
+                .tags(tags).tag("outcome", "miss").register(meterRegistry);
+    }
+
+    private void scheduleRefill(SpecPool pool) {
+        int active;
+        while ((active = pool.activeRefills.get()) < workerCount) {
+            if (pool.activeRefills.compareAndSet(active, active + 1)) {
+                try {
+                    workers.execute(() -> refill(pool));
+                } catch (RejectedExecutionException e) {
+                    pool.activeRefills.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void refill(SpecPool pool) {
+        try {
+            while (pool.queue.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                long start = System.nanoTime();
+                KeyPair keyPair = KeyAlgorithms.generate(pool.algorithm, pool.keySize);
+                pool.generationNanos.add(System.nanoTime() - start);
+                pool.generated.increment();
+                if (!pool.queue.offer(keyPair)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Key pair pool refill failed for {}:{}", pool.algorithm, pool.keySize, e);
+        } finally {
+            pool.activeRefills.decrementAndGet();
+        }
+    }
+
+    private static String poolKey(KeyAlgorithm algorithm, int keySize) {
+        return algorithm + ":" + keySize;
+    }
+
+    private static final class SpecPool {
+        private final KeyAlgorithm algorithm;
+        private final int keySize;
+        private final int targetDepth;
+        private final BlockingQueue<KeyPair> queue;
+        private final AtomicInteger activeRefills = new AtomicInteger();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder starvations = new LongAdder();
+        private final LongAdder generated = new LongAdder();
+        private final LongAdder generationNanos = new LongAdder();
+
+        SpecPool(KeyAlgorithm algorithm, int keySize, int targetDepth) {
+            this.algorithm = algorithm;
+            this.keySize = keySize;
+            this.targetDepth = targetDepth;
+            this.queue = new ArrayBlockingQueue<>(targetDepth);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.pki.service;
+
+import java.time.Instant;
+
+/**
+ * A built keystore ready to be served, with the ETag it was cached under.
+ */
+public class KeystoreArtifact {
+
+    private final byte[] keystore;
+    private final String etag;
+    private final Instant builtAt;
+
+    public KeystoreArtifact(byte[] keystore, String etag, Instant builtAt) {
+        this.keystore = keystore;
+        this.etag = etag;
+        this.builtAt = builtAt;
+    }
+
+    public byte[] getKeystore() {
+        return keystore;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+}
@@ -0,0 +1,160 @@
+package com.pki.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Built PKCS12/JKS keystores keyed by (serial, format), so repeated downloads skip the DEK
+ * unwrap, key decryption and keystore PBE/MAC derivation. Entries are AES-GCM encrypted under a
+ * random key that only lives in this process and is replaced whenever the cache is cleared.
+ * Concurrent requests for the same artifact wait for a single build on the first caller's thread.
+ */
+@Component
+public class KeystoreArtifactCache {
+
+    @Autowired
+    private EncryptionService encryptionService;
+
+    @Value("${pki.keystore-cache.max-size:1000}")
+    private long maxSize;
+
+    @Value("${pki.keystore-cache.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private AsyncCache<String, CachedArtifact> artifacts;
+    private volatile byte[] cacheKey;
+
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+    private final LongAdder coalescedWaits = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        artifacts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        cacheKey = newCacheKey();
+    }
+
+    @PreDestroy
+    void destroy() {
+        artifacts.synchronous().invalidateAll();
+        Arrays.fill(cacheKey, (byte) 0);
+    }
+
+    public KeystoreArtifact get(String serialNumber, String keystoreType, Supplier<byte[]> builder) {
+        String key = serialNumber + ":" + keystoreType;
+        CompletableFuture<CachedArtifact> pending = artifacts.getIfPresent(key);
+        if (pending == null) {
+            CompletableFuture<CachedArtifact> created = new CompletableFuture<>();
+            pending = artifacts.asMap().putIfAbsent(key, created);
+            if (pending == null) {
+                // Failed builds complete exceptionally and Caffeine drops them, so the next request retries
+                pending = created;
+                try {
+                    created.complete(build(builder));
+                } catch (Throwable t) {
+                    created.completeExceptionally(t);
+                }
+            }
+        }
+        if (!pending.isDone()) {
+            coalescedWaits.increment();
+        }
+        try {
+            return pending.join().open();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    public void invalidate(String serialNumber) {
+        artifacts.synchronous().invalidateAll(List.of(serialNumber + ":PKCS12", serialNumber + ":JKS"));
+    }
+
+    /**
+     * Drops every artifact and replaces the cache encryption key, e.g. after a master key rotation.
+     */
+    public void invalidateAll() {
+        cacheKey = newCacheKey();
+        artifacts.synchronous().invalidateAll();
+    }
+
+    public Map<String, Object> getMetrics() {
+        CacheStats stats = artifacts.synchronous().stats();
+        long buildCount = builds.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", artifacts.synchronous().estimatedSize());
+        metrics.put("maxSize", maxSize);
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("hitRate", stats.hitRate());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("builds", buildCount);
+        metrics.put("coalescedWaits", coalescedWaits.sum());
+        metrics.put("avgBuildMillis", buildCount == 0 ? 0.0 : buildNanos.sum() / (buildCount * 1_000_000.0));
+        return metrics;
+    }
+
+    private CachedArtifact build(Supplier<byte[]> builder) {
+        long start = System.nanoTime();
+        byte[] keystore = builder.get();
+        try {
+            byte[] key = cacheKey;
+            CachedArtifact artifact = new CachedArtifact(key, encryptionService.encryptBytesWithKey(key, keystore),
+                    EtagUtils.etagOf(keystore), Instant.now());
+            builds.increment();
+            buildNanos.add(System.nanoTime() - start);
+            return artifact;
+        } finally {
+            Arrays.fill(keystore, (byte) 0);
+        }
+    }
+
+    private byte[] newCacheKey() {
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        return key;
+    }
+
+    // Keeps a reference to the key it was encrypted under, so a build that finishes during a rotation still opens
+    private final class CachedArtifact {
+        private final byte[] key;
+        private final byte[] encrypted;
+        private final String etag;
+        private final Instant builtAt;
+
+        CachedArtifact(byte[] key, byte[] encrypted, String etag, Instant builtAt) {
+            this.key = key;
+            this.encrypted = encrypted;
+            this.etag = etag;
+            this.builtAt = builtAt;
+        }
+
+        KeystoreArtifact open() {
+            return new KeystoreArtifact(encryptionService.decryptBytesWithKey(key, encrypted), etag, builtAt);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.pki.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Holds the key-encryption key derived from PKI_MASTER_KEY. PBKDF2 runs once on first use;
+ * a rotation installs a new KEK with {@link #install(byte[])} and the old bytes are zeroized.
+ */
+@Component
+public class MasterKeyHolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(MasterKeyHolder.class);
+
+    private static final String MASTER_KEY_PROPERTY = "${PKI_MASTER_KEY:${pki.master-key:}}";
+    private static final String MASTER_SALT_PROPERTY = "${pki.master-salt:default_salt_value}";
+    private static final int PBKDF2_ITERATIONS = 100_000;
+
+    @Autowired
+    private Environment environment;
+
+    // Readers copy the key under the read lock so a concurrent rotation never hands out zeroized bytes
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private byte[] keyBytes;
+    private volatile boolean loaded;
+
+    private final AtomicLong derivations = new AtomicLong();
+    private final AtomicLong rotations = new AtomicLong();
+    private volatile long lastDerivationNanos;
+    private volatile long lastDerivedAtMillis;
+
+    public SecretKey getKey() {
+        lock.readLock().lock();
+        try {
+            if (keyBytes != null) {
+                return new SecretKeySpec(keyBytes, "AES");
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (keyBytes == null) {
+                replace(derive(resolveMasterKey()));
+            }
+            return new SecretKeySpec(keyBytes, "AES");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Derives the KEK for another master key with the configured salt, without installing it.
+     * The caller owns the returned bytes.
+     */
+    public byte[] derive(String masterKey) {
+        if (masterKey == null || masterKey.isEmpty()) {
+            throw new IllegalStateException("Master key is not configured. Set environment variable PKI_MASTER_KEY or pki.master-key property.");
+        }
+        try {
+            long start = System.nanoTime();
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            PBEKeySpec spec = new PBEKeySpec(masterKey.toCharArray(),
+                    resolveMasterSalt().getBytes(StandardCharsets.UTF_8), PBKDF2_ITERATIONS, 256);
+            byte[] derived = factory.generateSecret(spec).getEncoded();
+            spec.clearPassword();
+
+            lastDerivationNanos = System.nanoTime() - start;
+            lastDerivedAtMillis = System.currentTimeMillis();
+            derivations.incrementAndGet();
+            logger.debug("KEK derived in {} ms", lastDerivationNanos / 1_000_000);
+            return derived;
+        } catch (Exception e) {
+            throw new RuntimeException("Error deriving key-encryption key", e);
+        }
+    }
+
+    /**
+     * Replaces the KEK with a copy of newKey once every wrapped DEK has been re-wrapped under it.
+     */
+    public void install(byte[] newKey) {
+        lock.writeLock().lock();
+        try {
+            replace(newKey.clone());
+            rotations.incrementAndGet();
+            logger.info("KEK rotated");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        lock.writeLock().lock();
+        try {
+            zeroize(keyBytes);
+            keyBytes = null;
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("loaded", loaded);
+        metrics.put("derivations", derivations.get());
+        metrics.put("rotations", rotations.get());
+        metrics.put("lastDerivationMillis", lastDerivationNanos / 1_000_000.0);
+        metrics.put("lastDerivedAt", lastDerivedAtMillis);
+        return metrics;
+    }
+
+    // Caller must hold the write lock
+    private void replace(byte[] derived) {
+        byte[] previous = keyBytes;
+        keyBytes = derived;
+        zeroize(previous);
+        loaded = true;
+    }
+
+    private String resolveMasterKey() {
+        return environment.resolvePlaceholders(MASTER_KEY_PROPERTY);
+    }
+
+    private String resolveMasterSalt() {
+        return environment.resolvePlaceholders(MASTER_SALT_PROPERTY);
+    }
+
+    private static void zeroize(byte[] bytes) {
+        if (bytes != null) {
+            Arrays.fill(bytes, (byte) 0);
+        }
+    }
+}
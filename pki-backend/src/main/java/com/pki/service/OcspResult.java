@@ -0,0 +1,36 @@
+package com.pki.service;
+
+import java.time.Instant;
+
+/**
+ * Encoded OCSPResponse plus the validity window used for HTTP caching headers. Error responses
+ * (malformedRequest, unauthorized, ...) have no nextUpdate and must not be cached.
+ */
+public class OcspResult {
+
+    private final byte[] encoded;
+    private final Instant thisUpdate;
+    private final Instant nextUpdate;
+
+    public OcspResult(byte[] encoded, Instant thisUpdate, Instant nextUpdate) {
+        this.encoded = encoded;
+        this.thisUpdate = thisUpdate;
+        this.nextUpdate = nextUpdate;
+    }
+
+    public byte[] getEncoded() {
+        return encoded;
+    }
+
+    public Instant getThisUpdate() {
+        return thisUpdate;
+    }
+
+    public Instant getNextUpdate() {
+        return nextUpdate;
+    }
+
+    public boolean isCacheable() {
+        return nextUpdate != null;
+    }
+}
@@ -0,0 +1,320 @@
+package com.pki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pki.entity.Certificate;
+import com.pki.repository.CertificateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.Req;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RFC 6960 OCSP responder. Responses are signed by the issuing CA's key. Single-certificate
+ * requests without a nonce (the RFC 5019 profile high-volume clients use) are answered from a
+ * cache of pre-signed responses that a scheduler re-signs before nextUpdate; revocation evicts
+ * the entry immediately. Nonce and multi-certificate requests are signed per request.
+ */
+@Service
+public class OcspService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcspService.class);
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private IssuerContextCache issuerContextCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${pki.ocsp.validity-seconds:3600}")
+    private long validitySeconds;
+
+    @Value("${pki.ocsp.refresh-margin-seconds:300}")
+    private long refreshMarginSeconds;
+
+    @Value("${pki.ocsp.cache-max-size:100000}")
+    private long cacheMaxSize;
+
+    private Cache<String, CachedResponse> responses;
+    private DigestCalculatorProvider digestCalculatorProvider;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder signatures = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Instant startedAt = Instant.now();
+
+    // Request latency, with client-side p50/p99 over a rolling window for getMetrics()
+    private Timer latencyTimer;
+
+    @PostConstruct
+    void init() {
+        latencyTimer = Timer.builder("pki.ocsp.response")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        // Entries never outlive the nextUpdate they were signed with
+        responses = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(validitySeconds))
+                .build();
+        try {
+            digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder().setProvider("BC").build();
+        } catch (Exception e) {
+            throw new RuntimeException("Error initializing OCSP digest provider", e);
+        }
+    }
+
+    /** Answers a DER-encoded OCSPRequest with a DER-encoded OCSPResponse. Never throws. */
+    public OcspResult respond(byte[] requestDer) {
+        long start = System.nanoTime();
+        requests.increment();
+        try {
+            OCSPReq request;
+            try {
+                request = new OCSPReq(requestDer);
+            } catch (Exception e) {
+                return error(OCSPRespBuilder.MALFORMED_REQUEST);
+            }
+            Req[] items = request.getRequestList();
+            if (items.length == 0) {
+                return error(OCSPRespBuilder.MALFORMED_REQUEST);
+            }
+            Extension nonce = request.getExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce);
+
+            if (items.length == 1 && nonce == null && isCacheable(items[0].getCertID())) {
+                return respondCached(items[0].getCertID());
+            }
+            misses.increment();
+            return respondFresh(items, nonce);
+        } catch (RuntimeException e) {
+            logger.error("Error answering OCSP request", e);
+            return error(OCSPRespBuilder.INTERNAL_ERROR);
+        } finally {
+            latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Drops the cached response for a revoked certificate, and all responses a revoked CA signed. */
+    public void onRevocation(Certificate revoked) {
+        responses.invalidate(revoked.getSerialNumber());
+        if (revoked.getType() != Certificate.CertificateType.END_ENTITY) {
+            responses.asMap().values().removeIf(cached -> revoked.getSerialNumber().equals(cached.issuerSerialNumber));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pki.ocsp.refresh-check-ms:60000}")
+    void refreshExpiring() {
+        Instant threshold = Instant.now().plusSeconds(refreshMarginSeconds);
+        responses.asMap().forEach((serialNumber, cached) -> {
+            if (cached.result.getNextUpdate().isAfter(threshold)) {
+                return;
+            }
+            try {
+                Optional<CachedResponse> refreshed = signSingle(cached.certId);
+                if (refreshed.isPresent()) {
+                    responses.asMap().replace(serialNumber, cached, refreshed.get());
+                } else {
+                    responses.asMap().remove(serialNumber, cached);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Dropping cached OCSP response for {}: {}", serialNumber, e.getMessage());
+                responses.asMap().remove(serialNumber, cached);
+            }
+        });
+    }
+
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        double uptimeSeconds = Math.max(1, Duration.between(startedAt, Instant.now()).getSeconds());
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("requests", requests.sum());
+        metrics.put("cached", responses.estimatedSize());
+        metrics.put("hits", hitCount);
+        metrics.put("misses", misses.sum());
+        metrics.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        metrics.put("signatures", signatures.sum());
+        metrics.put("signaturesPerSecond", signatures.sum() / uptimeSeconds);
+        metrics.put("errors", errors.sum());
+        for (ValueAtPercentile value : latencyTimer.takeSnapshot().percentileValues()) {
+            metrics.put(value.percentile() == 0.5 ? "p50Millis" : "p99Millis", value.value(TimeUnit.MILLISECONDS));
+        }
+        return metrics;
+    }
+
+    private OcspResult respondCached(CertificateID certId) {
+        String serialNumber = certId.getSerialNumber().toString();
+        CachedResponse cached = responses.getIfPresent(serialNumber);
+        if (cached != null && cached.certId.equals(certId)) {
+            hits.increment();
+            return cached.result;
+        }
+        misses.increment();
+        if (cached == null) {
+            // Loading through the cache makes a concurrent revocation's invalidate wait for this
+            // fill and then remove it, so a stale "good" response is never left behind
+            cached = responses.get(serialNumber, key -> signSingle(certId).orElse(null));
+        } else {
+            cached = signSingle(certId).orElse(null);
+        }
+        return cached == null ? error(OCSPRespBuilder.UNAUTHORIZED) : cached.result;
+    }
+
+    // One response carries one signature, so it is signed by the issuer of the first known
+    // certificate; unknown certificates and those of other issuers are answered "unknown"
+    private OcspResult respondFresh(Req[] items, Extension nonce) {
+        String issuerSerialNumber = null;
+        List<CertificateID> certIds = new ArrayList<>();
+        List<CertificateStatus> statuses = new ArrayList<>();
+        for (Req item : items) {
+            Optional<Certificate> certificate = findCertificate(item.getCertID());
+            if (certificate.isPresent() && issuerSerialNumber == null) {
+                issuerSerialNumber = certificate.get().getIssuerSerialNumber();
+            }
+            certIds.add(item.getCertID());
+            statuses.add(certificate.isPresent() && issuerSerialNumber.equals(certificate.get().getIssuerSerialNumber())
+                    ? statusOf(certificate.get())
+                    : new UnknownStatus());
+        }
+        if (issuerSerialNumber == null) {
+            return error(OCSPRespBuilder.UNAUTHORIZED);
+        }
+        return sign(issuerContextCache.get(issuerSerialNumber), certIds, statuses, nonce);
+    }
+
+    private Optional<CachedResponse> signSingle(CertificateID certId) {
+        Optional<Certificate> certificate = findCertificate(certId);
+        if (certificate.isEmpty()) {
+            return Optional.empty();
+        }
+        String issuerSerialNumber = certificate.get().getIssuerSerialNumber();
+        // CertificateStatus.GOOD is null, so no List.of here
+        OcspResult result = sign(issuerContextCache.get(issuerSerialNumber),
+                Collections.singletonList(certId), Collections.singletonList(statusOf(certificate.get())), null);
+        return Optional.of(new CachedResponse(certId, issuerSerialNumber, result));
+    }
+
+    // Known certificate whose CertID issuer hashes match its actual issuer; roots answer for nothing
+    private Optional<Certificate> findCertificate(CertificateID certId) {
+        Optional<Certificate> certificate = certificateRepository.findBySerialNumber(certId.getSerialNumber().toString());
+        if (certificate.isEmpty() || certificate.get().getIssuerSerialNumber() == null) {
+            return Optional.empty();
+        }
+        try {
+            IssuerSigningContext issuer = issuerContextCache.get(certificate.get().getIssuerSerialNumber());
+            X509CertificateHolder issuerHolder = new X509CertificateHolder(issuer.getCertificate().getEncoded());
+            return certId.matchesIssuer(issuerHolder, digestCalculatorProvider) ? certificate : Optional.empty();
+        } catch (RuntimeException re) {
+            throw re;
+        } catch (Exception e) {
+            throw new RuntimeException("Error matching OCSP issuer", e);
+        }
+    }
+
+    private CertificateStatus statusOf(Certificate certificate) {
+        if (!certificate.isRevoked()) {
+            return CertificateStatus.GOOD;
+        }
+        Date revokedAt = Date.from(certificate.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant());
+        // No reason is recorded at revocation, so omit revocationReason rather than claim unspecified
+        return new RevokedStatus(revokedAt);
+    }
+
+    private OcspResult sign(IssuerSigningContext issuer, List<CertificateID> certIds,
+                            List<CertificateStatus> statuses, Extension nonce) {
+        try {
+            Instant thisUpdate = Instant.now();
+            Instant nextUpdate = thisUpdate.plusSeconds(validitySeconds);
+
+            SubjectPublicKeyInfo responderKey = SubjectPublicKeyInfo.getInstance(
+                    issuer.getCertificate().getPublicKey().getEncoded());
+            BasicOCSPRespBuilder builder = new BasicOCSPRespBuilder(responderKey,
+                    digestCalculatorProvider.get(CertificateID.HASH_SHA1));
+            for (int i = 0; i < certIds.size(); i++) {
+                builder.addResponse(certIds.get(i), statuses.get(i), Date.from(thisUpdate), Date.from(nextUpdate), null);
+            }
+            if (nonce != null) {
+                builder.setResponseExtensions(new Extensions(nonce));
+            }
+
+            ContentSigner contentSigner = new JcaContentSignerBuilder(issuer.getSignatureAlgorithm())
+                    .setProvider("BC").build(issuer.getPrivateKey());
+            BasicOCSPResp basic = builder.build(contentSigner, null, Date.from(thisUpdate));
+            signatures.increment();
+
+            byte[] encoded = new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basic).getEncoded();
+            return new OcspResult(encoded, thisUpdate, nextUpdate);
+        } catch (RuntimeException re) {
+            throw re;
+        } catch (Exception e) {
+            throw new RuntimeException("Error signing OCSP response", e);
+        }
+    }
+
+    private OcspResult error(int status) {
+        errors.increment();
+        try {
+            return new OcspResult(new OCSPRespBuilder().build(status, null).getEncoded(), null, null);
+        } catch (Exception e) {
+            throw new RuntimeException("Error encoding OCSP error response", e);
+        }
+    }
+
+    // RFC 5019 clients use SHA-1 CertIDs; other hash algorithms are answered but not cached
+    private static boolean isCacheable(CertificateID certId) {
+        return CertificateID.HASH_SHA1.getAlgorithm().equals(certId.getHashAlgOID());
+    }
+
+    private static final class CachedResponse {
+        private final CertificateID certId;
+        private final String issuerSerialNumber;
+        private final OcspResult result;
+
+        CachedResponse(CertificateID certId, String issuerSerialNumber, OcspResult result) {
+            this.certId = certId;
+            this.issuerSerialNumber = issuerSerialNumber;
+            this.result = result;
+        }
+    }
+}
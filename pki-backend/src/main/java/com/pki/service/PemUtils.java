@@ -0,0 +1,90 @@
+package com.pki.service;
+
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.openssl.PEMKeyPair;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.bouncycastle.util.io.pem.PemObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.security.PrivateKey;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+
+/**
+ * PEM and DER encoding and parsing shared by issuance, keystore export and the certificate caches.
+ */
+public final class PemUtils {
+
+    private PemUtils() {}
+
+    public static String convertToPem(X509Certificate cert) throws Exception {
+        StringWriter writer = new StringWriter();
+        JcaPEMWriter pemWriter = new JcaPEMWriter(writer);
+        pemWriter.writeObject(cert);
+        pemWriter.close();
+        return writer.toString();
+    }
+
+    public static String convertCrlToPem(X509CRLHolder crl) throws Exception {
+        StringWriter writer = new StringWriter();
+        JcaPEMWriter pemWriter = new JcaPEMWriter(writer);
+        pemWriter.writeObject(crl);
+        pemWriter.close();
+        return writer.toString();
+    }
+
+    public static String convertPrivateKeyToPem(PrivateKey privateKey) throws Exception {
+        StringWriter writer = new StringWriter();
+        JcaPEMWriter pemWriter = new JcaPEMWriter(writer);
+        pemWriter.writeObject(privateKey);
+        pemWriter.close();
+        return writer.toString();
+    }
+
+    public static PrivateKey loadPrivateKeyFromPem(String privateKeyPem) throws Exception {
+        // Handles PKCS#8 ("PRIVATE KEY") as well as the traditional RSA/EC encodings JcaPEMWriter emits
+        try (PEMParser parser = new PEMParser(new StringReader(privateKeyPem))) {
+            Object parsed = parser.readObject();
+            JcaPEMKeyConverter converter = new JcaPEMKeyConverter().setProvider("BC");
+            if (parsed instanceof PEMKeyPair) {
+                return converter.getKeyPair((PEMKeyPair) parsed).getPrivate();
+            }
+            if (parsed instanceof PrivateKeyInfo) {
+                return converter.getPrivateKey((PrivateKeyInfo) parsed);
+            }
+            throw new IllegalArgumentException("Unsupported private key PEM: "
+                    + (parsed == null ? "empty" : parsed.getClass().getSimpleName()));
+        }
+    }
+
+    /**
+     * PEM armor around stored DER bytes, without parsing them.
+     */
+    public static String derToPem(String type, byte[] der) throws Exception {
+        StringWriter writer = new StringWriter();
+        JcaPEMWriter pemWriter = new JcaPEMWriter(writer);
+        pemWriter.writeObject(new PemObject(type, der));
+        pemWriter.close();
+        return writer.toString();
+    }
+
+    public static X509Certificate loadCertificateFromDer(byte[] der) throws Exception {
+        CertificateFactory certFactory = CertificateFactory.getInstance("X.509");
+        return (X509Certificate) certFactory.generateCertificate(new ByteArrayInputStream(der));
+    }
+
+    public static PrivateKey loadPrivateKeyFromDer(byte[] pkcs8Der) throws Exception {
+        return new JcaPEMKeyConverter().setProvider("BC").getPrivateKey(PrivateKeyInfo.getInstance(pkcs8Der));
+    }
+
+    public static X509Certificate loadCertificateFromPem(String certPem) throws Exception {
+        CertificateFactory certFactory = CertificateFactory.getInstance("X.509");
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(certPem.getBytes());
+        return (X509Certificate) certFactory.generateCertificate(inputStream);
+    }
+}
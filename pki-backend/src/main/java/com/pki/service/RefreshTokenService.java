@@ -0,0 +1,178 @@
+package com.pki.service;
+
+import com.pki.dto.JwtResponse;
+import com.pki.entity.RefreshToken;
+import com.pki.repository.RefreshTokenFamily;
+import com.pki.repository.RefreshTokenRepository;
+import com.pki.security.JwtTokenProvider;
+import com.pki.security.TokenDenylist;
+import com.pki.security.UserDetailsCache;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Issues, rotates and revokes refresh tokens. Every login starts a token family; each refresh
+ * consumes the presented token and issues its successor in the same family. A consumed token
+ * presented again means it leaked, so the whole family is revoked. Revoked families and logged
+ * out tokens go to the {@link TokenDenylist}, which the request filter checks without a query.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final LongAdder rotations = new LongAdder();
+    private final LongAdder reuseDetections = new LongAdder();
+    private final LongAdder revokedFamilies = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Families revoked before a restart stay denied until their tokens expire
+        for (RefreshTokenFamily family : refreshTokenRepository.findRevokedFamilies(Instant.now())) {
+            tokenDenylist.deny(family.getFamilyId(), family.getExpiresAt());
+        }
+    }
+
+    public JwtResponse issue(String username) {
+        return transactionTemplate.execute(status -> issuePair(username, UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair, or returns empty when the token is invalid,
+     * revoked or already used.
+     */
+    public Optional<JwtResponse> rotate(String refreshToken) {
+        Optional<Claims> verified = tokenProvider.verify(refreshToken)
+                .filter(JwtTokenProvider::isRefreshToken)
+                .filter(claims -> !tokenDenylist.isDenied(claims));
+        if (verified.isEmpty() || verified.get().getId() == null) {
+            return Optional.empty();
+        }
+        Claims claims = verified.get();
+        String familyId = claims.get(JwtTokenProvider.FAMILY_CLAIM, String.class);
+
+        return transactionTemplate.execute(status -> {
+            if (refreshTokenRepository.consume(claims.getId()) == 0) {
+                if (refreshTokenRepository.findByTokenId(claims.getId()).isPresent()) {
+                    reuseDetections.increment();
+                    logger.warn("Refresh token reuse detected for user {}, revoking token family", claims.getSubject());
+                    revokeFamily(familyId);
+                }
+                return Optional.empty();
+            }
+            if (!isEnabled(claims.getSubject())) {
+                revokeFamily(familyId);
+                return Optional.empty();
+            }
+            rotations.increment();
+            return Optional.of(issuePair(claims.getSubject(), familyId));
+        });
+    }
+
+    /**
+     * Revokes whatever the caller presents: the access token itself and, through its family,
+     * every refresh token issued with it.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String token : new String[]{accessToken, refreshToken}) {
+                tokenProvider.verify(token).ifPresent(claims -> {
+                    tokenDenylist.deny(claims.getId(), claims.getExpiration().toInstant());
+                    revokeFamily(claims.get(JwtTokenProvider.FAMILY_CLAIM, String.class));
+                });
+            }
+        });
+    }
+
+    /**
+     * Revokes every live token family of a user; returns how many were revoked.
+     */
+    public int revokeAllForUser(String username) {
+        return transactionTemplate.execute(status -> {
+            List<RefreshTokenFamily> families = refreshTokenRepository.findActiveFamilies(username, Instant.now());
+            for (RefreshTokenFamily family : families) {
+                refreshTokenRepository.revokeFamily(family.getFamilyId());
+                tokenDenylist.deny(family.getFamilyId(), family.getExpiresAt());
+                revokedFamilies.increment();
+            }
+            return families.size();
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-store.purge-interval-ms:3600000}")
+    void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status -> refreshTokenRepository.deleteExpired(Instant.now()));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("refreshRotations", rotations.sum());
+        metrics.put("refreshReuseDetections", reuseDetections.sum());
+        metrics.put("revokedFamilies", revokedFamilies.sum());
+        metrics.putAll(tokenDenylist.getMetrics());
+        return metrics;
+    }
+
+    private JwtResponse issuePair(String username, String familyId) {
+        String refreshToken = tokenProvider.generateRefreshToken(username, familyId);
+        Claims claims = tokenProvider.verify(refreshToken)
+                .orElseThrow(() -> new RuntimeException("Error issuing refresh token"));
+        refreshTokenRepository.save(new RefreshToken(claims.getId(), familyId, username,
+                claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant()));
+        return new JwtResponse(tokenProvider.generateAccessToken(username, familyId), refreshToken, username);
+    }
+
+    private void revokeFamily(String familyId) {
+        if (familyId == null || refreshTokenRepository.revokeFamily(familyId) == 0) {
+            return;
+        }
+        refreshTokenRepository.findFamilyExpiry(familyId)
+                .ifPresent(expiresAt -> tokenDenylist.deny(familyId, expiresAt));
+        revokedFamilies.increment();
+    }
+
+    private boolean isEnabled(String username) {
+        try {
+            return userDetailsCache.get(username).isEnabled();
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+    }
+}
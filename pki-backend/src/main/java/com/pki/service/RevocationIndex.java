@@ -0,0 +1,209 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import com.pki.repository.CertificateRepository;
+import com.pki.repository.CertificateSummary;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory revoked/expired status for every certificate, keyed by serial number and tagged with
+ * the issuer. Loaded from the metadata projection at startup and kept current by issuance and
+ * revocation (applied after commit), so status checks never touch the database. Expiry is kept
+ * at minute precision.
+ */
+@Component
+public class RevocationIndex {
+
+    public enum Status {
+        GOOD, REVOKED, EXPIRED, UNKNOWN
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationIndex.class);
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Value("${pki.revocation-index.load-page-size:5000}")
+    private int loadPageSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private SerialStatusTable table;
+
+    // Issuer serials interned to small ints; 0 means self-signed
+    private final Map<String, Integer> issuerIds = new HashMap<>();
+    private final List<String> issuerSerials = new ArrayList<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private volatile long loadMillis;
+
+    @PostConstruct
+    void load() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            table = new SerialStatusTable((int) certificateRepository.count());
+            issuerIds.clear();
+            issuerSerials.clear();
+            issuerSerials.add(null);
+
+            long afterId = 0;
+            List<CertificateSummary> page;
+            do {
+                page = certificateRepository.findSummariesAfter(afterId, PageRequest.of(0, loadPageSize));
+                for (CertificateSummary summary : page) {
+                    put(summary.getSerialNumber(), summary.getIssuerSerialNumber(), summary.getExpiresAt(), summary.isRevoked());
+                    afterId = summary.getId();
+                }
+            } while (page.size() == loadPageSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Revocation index loaded {} certificates in {} ms", table.size(), loadMillis);
+    }
+
+    public void onIssued(Collection<Certificate> certificates) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (Certificate certificate : certificates) {
+                    put(certificate.getSerialNumber(), certificate.getIssuerSerialNumber(),
+                            certificate.getExpiresAt(), certificate.isRevoked());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void onRevoked(Certificate certificate) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (!table.markRevoked(table.fingerprint(new BigInteger(certificate.getSerialNumber())))) {
+                    put(certificate.getSerialNumber(), certificate.getIssuerSerialNumber(), certificate.getExpiresAt(), true);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public Status getStatus(String serialNumber) {
+        return getStatuses(List.of(serialNumber)).get(serialNumber);
+    }
+
+    /**
+     * Status of each serial number, in request order. When issuerSerialNumber is given, serials
+     * issued by a different CA are reported as UNKNOWN.
+     */
+    public Map<String, Status> getStatuses(Collection<String> serialNumbers, String issuerSerialNumber) {
+        int nowMinute = toMinute(Instant.now().getEpochSecond());
+        Map<String, Status> statuses = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            Integer issuerFilter = issuerSerialNumber == null ? null : issuerIds.get(issuerSerialNumber);
+            for (String serialNumber : serialNumbers) {
+                statuses.put(serialNumber, statusOf(serialNumber, issuerSerialNumber, issuerFilter, nowMinute));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lookups.add(serialNumbers.size());
+        return statuses;
+    }
+
+    public Map<String, Status> getStatuses(Collection<String> serialNumbers) {
+        return getStatuses(serialNumbers, null);
+    }
+
+    public Map<String, Object> getMetrics() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("entries", table.size());
+            metrics.put("capacity", table.capacity());
+            metrics.put("issuers", issuerSerials.size() - 1);
+            metrics.put("memoryBytes", table.memoryBytes());
+            metrics.put("bytesPerEntry", table.size() == 0 ? 0.0 : (double) table.memoryBytes() / table.size());
+            metrics.put("lookups", lookups.sum());
+            metrics.put("loadMillis", loadMillis);
+            return metrics;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Status statusOf(String serialNumber, String issuerSerialNumber, Integer issuerFilter, int nowMinute) {
+        if (issuerSerialNumber != null && issuerFilter == null) {
+            return Status.UNKNOWN;
+        }
+        int slot;
+        try {
+            slot = table.find(table.fingerprint(new BigInteger(serialNumber)));
+        } catch (NumberFormatException e) {
+            return Status.UNKNOWN;
+        }
+        if (slot == SerialStatusTable.NOT_FOUND || (issuerFilter != null && table.issuerAt(slot) != issuerFilter)) {
+            return Status.UNKNOWN;
+        }
+        if (table.isRevoked(slot)) {
+            return Status.REVOKED;
+        }
+        return table.expiryMinuteAt(slot) <= nowMinute ? Status.EXPIRED : Status.GOOD;
+    }
+
+    // Caller must hold the write lock
+    private void put(String serialNumber, String issuerSerialNumber, LocalDateTime expiresAt, boolean revoked) {
+        int issuer = 0;
+        if (issuerSerialNumber != null) {
+            issuer = issuerIds.computeIfAbsent(issuerSerialNumber, serial -> {
+                issuerSerials.add(serial);
+                return issuerSerials.size() - 1;
+            });
+        }
+        long expiresAtSecond = expiresAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        // Round expiry up so a certificate is never reported expired early
+        table.put(table.fingerprint(new BigInteger(serialNumber)), issuer,
+                toMinute(expiresAtSecond + 59), revoked);
+    }
+
+    private static int toMinute(long epochSecond) {
+        return (int) (epochSecond / 60);
+    }
+
+    // Inside a transaction the index follows the commit; otherwise the save has already committed
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.pki.service;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+/**
+ * Open-addressing hash table from a 64-bit serial fingerprint to issuer, expiry and revoked flag,
+ * stored in parallel primitive arrays (17 bytes per slot, load factor at most 0.6). Fingerprints
+ * are SipHash-2-4 under a random per-table key, so colliding serials cannot be chosen in advance.
+ * Serial numbers are unique across the PKI, so the serial alone identifies a certificate. Not
+ * thread-safe; {@link RevocationIndex} guards it with a read/write lock.
+ */
+final class SerialStatusTable {
+
+    static final int NOT_FOUND = -1;
+
+    private static final byte OCCUPIED = 1;
+    private static final byte REVOKED = 2;
+    private static final double MAX_LOAD = 0.6;
+
+    private final long hashKey0;
+    private final long hashKey1;
+
+    private long[] keys;
+    private int[] issuers;
+    private int[] expiryMinutes;
+    private byte[] flags;
+    private int size;
+
+    SerialStatusTable(int expectedEntries) {
+        this(expectedEntries, new SecureRandom());
+    }
+
+    private SerialStatusTable(int expectedEntries, SecureRandom random) {
+        this(expectedEntries, random.nextLong(), random.nextLong());
+    }
+
+    SerialStatusTable(int expectedEntries, long hashKey0, long hashKey1) {
+        this.hashKey0 = hashKey0;
+        this.hashKey1 = hashKey1;
+        allocate(capacityFor(expectedEntries));
+    }
+
+    /**
+     * Keyed 64-bit fingerprint of a serial: the low 192 bits in two's complement plus the bit
+     * length and sign, so serials up to 160 bits map one-to-one onto the hash input. A false
+     * match for an unknown serial has probability of about size / 2^64, whatever the serials.
+     */
+    long fingerprint(BigInteger serial) {
+        return sipHash(hashKey0, hashKey1,
+                serial.longValue(),
+                serial.shiftRight(64).longValue(),
+                serial.shiftRight(128).longValue(),
+                (long) serial.bitLength() << 1 | (serial.signum() < 0 ? 1 : 0));
+    }
+
+    // SipHash-2-4 of the words as a little-endian message of 8 * words.length bytes
+    static long sipHash(long k0, long k1, long... words) {
+        long[] v = {
+                k0 ^ 0x736f6d6570736575L,
+                k1 ^ 0x646f72616e646f6dL,
+                k0 ^ 0x6c7967656e657261L,
+                k1 ^ 0x7465646279746573L
+        };
+        for (int i = 0; i <= words.length; i++) {
+            // The last block holds only the message length in its top byte
+            long m = i < words.length ? words[i] : (long) (words.length * 8) << 56;
+            v[3] ^= m;
+            sipRounds(v, 2);
+            v[0] ^= m;
+        }
+        v[2] ^= 0xff;
+        sipRounds(v, 4);
+        return v[0] ^ v[1] ^ v[2] ^ v[3];
+    }
+
+    private static void sipRounds(long[] v, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            v[0] += v[1];
+            v[1] = Long.rotateLeft(v[1], 13) ^ v[0];
+            v[0] = Long.rotateLeft(v[0], 32);
+            v[2] += v[3];
+            v[3] = Long.rotateLeft(v[3], 16) ^ v[2];
+            v[0] += v[3];
+            v[3] = Long.rotateLeft(v[3], 21) ^ v[0];
+            v[2] += v[1];
+            v[1] = Long.rotateLeft(v[1], 17) ^ v[2];
+            v[2] = Long.rotateLeft(v[2], 32);
+        }
+    }
+
+    void put(long key, int issuer, int expiresAtMinute, boolean revoked) {
+        if (size + 1 > keys.length * MAX_LOAD) {
+            resize(keys.length * 2);
+        }
+        int slot = probe(key);
+        if ((flags[slot] & OCCUPIED) == 0) {
+            size++;
+        }
+        keys[slot] = key;
+        issuers[slot] = issuer;
+        expiryMinutes[slot] = expiresAtMinute;
+        flags[slot] = (byte) (OCCUPIED | (revoked ? REVOKED : 0));
+    }
+
+    boolean markRevoked(long key) {
+        int slot = find(key);
+        if (slot == NOT_FOUND) {
+            return false;
+        }
+        flags[slot] |= REVOKED;
+        return true;
+    }
+
+    int find(long key) {
+        int slot = probe(key);
+        return (flags[slot] & OCCUPIED) == 0 ? NOT_FOUND : slot;
+    }
+
+    boolean isRevoked(int slot) {
+        return (flags[slot] & REVOKED) != 0;
+    }
+
+    int issuerAt(int slot) {
+        return issuers[slot];
+    }
+
+    int expiryMinuteAt(int slot) {
+        return expiryMinutes[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    long memoryBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES + Integer.BYTES + 1);
+    }
+
+    // Linear probing; returns the key's slot or the empty slot where it would go
+    private int probe(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) mix(key) & mask;
+        while ((flags[slot] & OCCUPIED) != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldIssuers = issuers;
+        int[] oldExpiry = expiryMinutes;
+        byte[] oldFlags = flags;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if ((oldFlags[i] & OCCUPIED) != 0) {
+                int slot = probe(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                issuers[slot] = oldIssuers[i];
+                expiryMinutes[slot] = oldExpiry[i];
+                flags[slot] = oldFlags[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        issuers = new int[capacity];
+        expiryMinutes = new int[capacity];
+        flags = new byte[capacity];
+    }
+
+    private static int capacityFor(int expectedEntries) {
+        int needed = (int) Math.ceil(Math.max(16, expectedEntries) / MAX_LOAD);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    // MurmurHash3 finalizer, spreads the fingerprint across the table
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,76 @@
+package com.pki.service;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * An encoded, signed CRL ready to be served as-is. Immutable.
+ */
+public class SignedCrl {
+
+    private final byte[] der;
+    private final String pem;
+    private final String derEtag;
+    private final String pemEtag;
+    private final BigInteger crlNumber;
+    private final BigInteger baseCrlNumber;
+    private final Instant thisUpdate;
+    private final Instant nextUpdate;
+    private final int entries;
+
+    public SignedCrl(byte[] der, String pem, BigInteger crlNumber, BigInteger baseCrlNumber,
+                     Instant thisUpdate, Instant nextUpdate, int entries) {
+        this.der = der;
+        this.pem = pem;
+        this.crlNumber = crlNumber;
+        this.baseCrlNumber = baseCrlNumber;
+        this.thisUpdate = thisUpdate;
+        this.nextUpdate = nextUpdate;
+        this.entries = entries;
+        this.derEtag = EtagUtils.etagOf(der);
+        this.pemEtag = EtagUtils.etagOf(pem.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public byte[] getDer() {
+        return der.clone();
+    }
+
+    public String getPem() {
+        return pem;
+    }
+
+    /** ETag of the DER encoding; the PEM body has its own so a cached one never validates the other. */
+    public String getDerEtag() {
+        return derEtag;
+    }
+
+    public String getPemEtag() {
+        return pemEtag;
+    }
+
+    public BigInteger getCrlNumber() {
+        return crlNumber;
+    }
+
+    /** Base CRL number for a delta CRL, null for a full CRL. */
+    public BigInteger getBaseCrlNumber() {
+        return baseCrlNumber;
+    }
+
+    public boolean isDelta() {
+        return baseCrlNumber != null;
+    }
+
+    public Instant getThisUpdate() {
+        return thisUpdate;
+    }
+
+    public Instant getNextUpdate() {
+        return nextUpdate;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+}
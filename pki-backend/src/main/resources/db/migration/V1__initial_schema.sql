@@ -0,0 +1,79 @@
+-- Schema as mapped by the entities when migrations were introduced
+
+CREATE SEQUENCE certificate_contents_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE certificates_seq START WITH 1 INCREMENT BY 50;
+
+-- format_version 1: Base64 PEM in the CLOB columns; 2: raw DER and encrypted PKCS#8 DER
+CREATE TABLE certificate_contents (
+    id                    BIGINT          NOT NULL,
+    format_version        INTEGER         DEFAULT 1 NOT NULL,
+    certificate_der       VARBINARY(16384),
+    encrypted_key_der     VARBINARY(16384),
+    certificate_data      CLOB,
+    encrypted_private_key CLOB,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE certificates (
+    id                   BIGINT        NOT NULL,
+    common_name          VARCHAR(255)  NOT NULL,
+    organization         VARCHAR(255)  NOT NULL,
+    organizational_unit  VARCHAR(255)  NOT NULL,
+    country              VARCHAR(255)  NOT NULL,
+    state                VARCHAR(255)  NOT NULL,
+    locality             VARCHAR(255)  NOT NULL,
+    serial_number        VARCHAR(255)  NOT NULL,
+    type                 VARCHAR(255)  NOT NULL CHECK (type IN ('SELF_SIGNED_ROOT', 'INTERMEDIATE', 'END_ENTITY')),
+    content_id           BIGINT        NOT NULL,
+    issued_at            TIMESTAMP(6)  NOT NULL,
+    expires_at           TIMESTAMP(6)  NOT NULL,
+    revoked              BOOLEAN       NOT NULL,
+    revoked_at           TIMESTAMP(6),
+    issuer_serial_number VARCHAR(255),
+    key_algorithm        VARCHAR(255)  NOT NULL CHECK (key_algorithm IN ('RSA', 'EC', 'ED25519')),
+    key_size             INTEGER       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_certificates_serial_number UNIQUE (serial_number),
+    CONSTRAINT uk_certificates_content UNIQUE (content_id),
+    CONSTRAINT fk_certificates_content FOREIGN KEY (content_id) REFERENCES certificate_contents (id)
+);
+
+CREATE TABLE organization_keys (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    organization VARCHAR(255)                NOT NULL,
+    wrapped_dek  CLOB                        NOT NULL,
+    dek_key_id   VARCHAR(255)                NOT NULL,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    algorithm    VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_organization_keys_organization UNIQUE (organization),
+    CONSTRAINT uk_organization_keys_dek_key_id UNIQUE (dek_key_id)
+);
+
+CREATE TABLE users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL,
+    enabled  BOOLEAN      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE refresh_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_id   VARCHAR(36)                 NOT NULL,
+    family_id  VARCHAR(36)                 NOT NULL,
+    username   VARCHAR(255)                NOT NULL,
+    issued_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    consumed   BOOLEAN                     NOT NULL,
+    revoked    BOOLEAN                     NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_id UNIQUE (token_id)
+);
+
+CREATE INDEX idx_certificate_contents_format ON certificate_contents (format_version, id);
+CREATE INDEX idx_certificates_issuer ON certificates (issuer_serial_number, id);
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at);
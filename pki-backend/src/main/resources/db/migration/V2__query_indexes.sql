@@ -0,0 +1,18 @@
+-- Indexes for the repository finders and background scans. Serial number lookups, the export
+-- cursor and token lookups use the unique constraints from V1.
+
+-- findByType, findSummariesAfter(type) keyset pages and the root anchor of findCaForest
+CREATE INDEX idx_certificates_type ON certificates (type, id);
+
+-- CRL finders (findByIssuerSerialNumberAndRevokedTrue..., revokedAt since the base CRL)
+-- and the revokedChildCount subquery of the hierarchy endpoints
+CREATE INDEX idx_certificates_issuer_revoked ON certificates (issuer_serial_number, revoked, revoked_at);
+
+-- Scans by validity window, such as certificates expiring within a period
+CREATE INDEX idx_certificates_expires ON certificates (expires_at);
+
+-- Per-organization scans; export filtered by organization walks it in serial number order
+CREATE INDEX idx_certificates_organization ON certificates (organization, serial_number);
+
+-- Revoking every token family of a user
+CREATE INDEX idx_refresh_tokens_username ON refresh_tokens (username, family_id);
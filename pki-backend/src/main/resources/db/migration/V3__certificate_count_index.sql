@@ -0,0 +1,2 @@
+-- countByTypeAndRevoked for the dashboard: grouped straight from the index, no table rows read
+CREATE INDEX idx_certificates_type_revoked ON certificates (type, revoked);
@@ -0,0 +1,172 @@
+package com.pki.repository;
+
+import com.pki.entity.Certificate;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every {@link CertificateRepository} finder against the schema built by the Flyway
+ * migrations, captures the SQL Hibernate sends and checks H2's plan for it (with bound
+ * parameters) uses the intended index and never scans a whole table.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pki.repository.CertificateQueryPlanTest$CapturingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CertificateQueryPlanTest {
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    private static final String SERIAL = "1234";
+    private static final String ISSUER = "5678";
+    private static final String ORGANIZATION = "OrgA";
+    private static final String ROOT = Certificate.CertificateType.SELF_SIGNED_ROOT.name();
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void clearStatements() {
+        CapturingInspector.statements.clear();
+    }
+
+    @Test
+    void serialNumberLookupsUseUniqueIndex() throws Exception {
+        certificateRepository.findBySerialNumber(SERIAL);
+        assertThat(plan(SERIAL)).contains("UK_CERTIFICATES_SERIAL_NUMBER_INDEX");
+
+        certificateRepository.existsBySerialNumber(SERIAL);
+        assertThat(plan(SERIAL, 1)).contains("UK_CERTIFICATES_SERIAL_NUMBER_INDEX");
+    }
+
+    @Test
+    void typeFindersUseTypeIndex() throws Exception {
+        certificateRepository.findByType(Certificate.CertificateType.SELF_SIGNED_ROOT);
+        assertThat(plan(ROOT)).contains("IDX_CERTIFICATES_TYPE:");
+
+        certificateRepository.findSummariesByTypeAfter(Certificate.CertificateType.SELF_SIGNED_ROOT, 0, PageRequest.of(0, 100));
+        assertThat(plan(ROOT, 0L, 0, 100)).contains("IDX_CERTIFICATES_TYPE: TYPE = ?1 AND ID > ?2");
+    }
+
+    @Test
+    void untypedKeysetPageUsesPrimaryKeyRange() throws Exception {
+        certificateRepository.findSummariesAfter(0, PageRequest.of(0, 100));
+        assertThat(plan(0L, 0, 100)).contains("PRIMARY_KEY_A: ID > ?1");
+    }
+
+    @Test
+    void issuerFindersUseIssuerIndexes() throws Exception {
+        certificateRepository.findByIssuerSerialNumber(ISSUER);
+        assertThat(plan(ISSUER)).contains("IDX_CERTIFICATES_ISSUER");
+
+        certificateRepository.findByIssuerSerialNumberAndRevokedTrue(ISSUER);
+        assertThat(plan(ISSUER)).contains("IDX_CERTIFICATES_ISSUER_REVOKED:");
+
+        LocalDateTime since = LocalDateTime.now();
+        certificateRepository.findByIssuerSerialNumberAndRevokedTrueAndRevokedAtGreaterThanEqual(ISSUER, since);
+        assertThat(plan(ISSUER, since)).contains("IDX_CERTIFICATES_ISSUER_REVOKED:");
+
+        certificateRepository.findEndEntityChildren(List.of(ISSUER), 10);
+        assertThat(plan(ISSUER, 10)).contains("IDX_CERTIFICATES_ISSUER:");
+    }
+
+    @Test
+    void hierarchyAnchorsUseIndexes() throws Exception {
+        certificateRepository.findCaSubtree(SERIAL, 2);
+        assertThat(plan(SERIAL, 2)).contains("UK_CERTIFICATES_SERIAL_NUMBER_INDEX").contains("IDX_CERTIFICATES_ISSUER");
+
+        certificateRepository.findCaForest(2);
+        assertThat(plan(2)).contains("IDX_CERTIFICATES_TYPE:").contains("IDX_CERTIFICATES_ISSUER");
+    }
+
+    @Test
+    void countsUseIndexes() throws Exception {
+        certificateRepository.countByTypeAndRevoked();
+        assertThat(plan()).contains("IDX_CERTIFICATES_TYPE_REVOKED */").contains("group sorted");
+
+        LocalDateTime now = LocalDateTime.now();
+        certificateRepository.countByRevokedFalseAndExpiresAtBetween(now, now.plusDays(30));
+        assertThat(plan(now, now.plusDays(30))).contains("IDX_CERTIFICATES_EXPIRES: EXPIRES_AT >= ?1 AND EXPIRES_AT <= ?2");
+    }
+
+    @Test
+    void contentMigrationUsesFormatIndex() throws Exception {
+        certificateRepository.findWithContentByFormatVersion(1, 0, PageRequest.of(0, 100));
+        assertThat(plan(1, 0L, 0, 100)).contains("IDX_CERTIFICATE_CONTENTS_FORMAT:");
+    }
+
+    @Test
+    void exportUsesIndexOfDrivingFilter() throws Exception {
+        Certificate.CertificateType root = Certificate.CertificateType.SELF_SIGNED_ROOT;
+
+        drain(certificateRepository.streamForExport("", null, null, null));
+        assertThat(plan("")).contains("UK_CERTIFICATES_SERIAL_NUMBER_INDEX_A: SERIAL_NUMBER > ?1");
+
+        drain(certificateRepository.streamForExport("", root, null, null));
+        assertThat(plan("", ROOT)).contains("IDX_CERTIFICATES_TYPE: TYPE = ?2");
+
+        drain(certificateRepository.streamForExport("", root, ORGANIZATION, null));
+        assertThat(plan("", ORGANIZATION, ROOT, ROOT)).contains("IDX_CERTIFICATES_ORGANIZATION: SERIAL_NUMBER > ?1 AND ORGANIZATION = ?2");
+
+        drain(certificateRepository.streamForExport("", null, ORGANIZATION, ISSUER));
+        assertThat(plan("", ISSUER, null, null, ORGANIZATION, ORGANIZATION))
+                .contains("IDX_CERTIFICATES_ISSUER: ISSUER_SERIAL_NUMBER = ?2");
+    }
+
+    private static void drain(Stream<CertificateExportRow> rows) {
+        try (rows) {
+            rows.count();
+        }
+    }
+
+    /**
+     * EXPLAIN for the last statement Hibernate issued, with the given values bound in order.
+     */
+    private String plan(Object... parameters) throws Exception {
+        assertThat(CapturingInspector.statements).isNotEmpty();
+        String sql = CapturingInspector.statements.get(CapturingInspector.statements.size() - 1);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            int count = explain.getParameterMetaData().getParameterCount();
+            assertThat(count).as("parameters of %s", sql).isEqualTo(parameters.length);
+            for (int i = 0; i < count; i++) {
+                explain.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                String plan = resultSet.getString(1).replaceAll("\\s+", " ");
+                // The recursive queries scan their own CTE, which is fine; the tables must not be
+                assertThat(plan).as("plan of %s", sql).doesNotContainPattern("PUBLIC\\.CERTIFICATE(S|_CONTENTS)\\.tableScan");
+                return plan;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import com.pki.repository.CertificateRepository;
+import org.bouncycastle.asn1.x509.CRLNumber;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.cert.X509CRLEntryHolder;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class CrlServiceTest {
+
+    @Autowired
+    private CrlService crlService;
+
+    @Autowired
+    private CertificateService certificateService;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    @Qualifier("crlExecutor")
+    private ExecutorService crlExecutor;
+
+    @Test
+    void baseListsRevokedCertificatesAndDeltaListsLaterRevocations() throws Exception {
+        Certificate root = TestCertificates.root(certificateService, "CrlOrg");
+        Certificate first = TestCertificates.endEntity(certificateService, root, "first.crl.test");
+        Certificate second = TestCertificates.endEntity(certificateService, root, "second.crl.test");
+        Certificate untouched = TestCertificates.endEntity(certificateService, root, "untouched.crl.test");
+
+        certificateService.revokeCertificate(first.getSerialNumber());
+        X509CRLHolder base = fullCrl(root);
+
+        assertThat(base.getExtension(Extension.deltaCRLIndicator)).isNull();
+        assertThat(entry(base, first)).isNotNull();
+        assertThat(entry(base, second)).isNull();
+        // Revocations carry no reason, so entries carry no reasonCode
+        assertThat(entry(base, first).hasExtensions()).isFalse();
+
+        certificateService.revokeCertificate(second.getSerialNumber());
+        awaitCrlBuilds();
+        X509CRLHolder delta = deltaCrl(root);
+
+        assertThat(baseCrlNumber(delta)).isEqualTo(crlNumber(base));
+        assertThat(entry(delta, second)).isNotNull();
+        assertThat(entry(delta, untouched)).isNull();
+        assertThat(crlNumber(fullCrl(root))).isEqualTo(crlNumber(base));
+    }
+
+    @Test
+    void revocationStampedBeforeTheBaseButCommittedAfterItReachesTheDelta() throws Exception {
+        Certificate root = TestCertificates.root(certificateService, "CrlLateOrg");
+        Certificate late = TestCertificates.endEntity(certificateService, root, "late.crl.test");
+        X509CRLHolder base = fullCrl(root);
+        assertThat(entry(base, late)).isNull();
+
+        // What revokeCertificate does when its save commits after the base query ran
+        late.setRevoked(true);
+        late.setRevokedAt(LocalDateTime.now().minusSeconds(10));
+        certificateRepository.save(late);
+        crlService.onRevocation(late);
+        awaitCrlBuilds();
+
+        assertThat(entry(deltaCrl(root), late)).isNotNull();
+    }
+
+    // The CRL executor is a single thread, so a no-op task finishes after every queued rebuild
+    private void awaitCrlBuilds() throws Exception {
+        crlExecutor.submit(() -> { }).get();
+    }
+
+    private X509CRLHolder fullCrl(Certificate issuer) throws Exception {
+        return new X509CRLHolder(crlService.getFullCrl(issuer.getSerialNumber()).orElseThrow().getDer());
+    }
+
+    private X509CRLHolder deltaCrl(Certificate issuer) throws Exception {
+        return new X509CRLHolder(crlService.getDeltaCrl(issuer.getSerialNumber()).orElseThrow().getDer());
+    }
+
+    private static X509CRLEntryHolder entry(X509CRLHolder crl, Certificate certificate) {
+        return crl.getRevokedCertificate(new BigInteger(certificate.getSerialNumber()));
+    }
+
+    private static BigInteger crlNumber(X509CRLHolder crl) {
+        return CRLNumber.getInstance(crl.getExtension(Extension.cRLNumber).getParsedValue()).getCRLNumber();
+    }
+
+    private static BigInteger baseCrlNumber(X509CRLHolder crl) {
+        return CRLNumber.getInstance(crl.getExtension(Extension.deltaCRLIndicator).getParsedValue()).getCRLNumber();
+    }
+}
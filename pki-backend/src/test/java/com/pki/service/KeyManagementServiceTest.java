@@ -0,0 +1,64 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import com.pki.repository.OrganizationKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class KeyManagementServiceTest {
+
+    private static final String MASTER_KEY = "test-master-key";
+    private static final String ROTATED_MASTER_KEY = "rotated-master-key";
+
+    @Autowired
+    private KeyManagementService keyManagementService;
+
+    @Autowired
+    private MasterKeyHolder masterKeyHolder;
+
+    @Autowired
+    private OrganizationKeyRepository organizationKeyRepository;
+
+    @Autowired
+    private CertificateService certificateService;
+
+    // The context is shared with other test classes, so leave it on the profile's master key
+    @AfterEach
+    void restoreMasterKey() {
+        keyManagementService.rotateMasterKey(MASTER_KEY);
+    }
+
+    @Test
+    void rotationRewrapsDeksAndKeepsExistingKeysReadable() throws Exception {
+        String organization = "RotationOrg";
+        Certificate root = TestCertificates.root(certificateService, organization);
+        byte[] dekBefore = keyManagementService.getDekForOrganization(organization);
+        String wrappedBefore = organizationKeyRepository.findByOrganization(organization).orElseThrow().getWrappedDek();
+
+        int rewrapped = keyManagementService.rotateMasterKey(ROTATED_MASTER_KEY);
+
+        assertThat(rewrapped).isGreaterThanOrEqualTo(1);
+        assertThat(masterKeyHolder.getKey().getEncoded()).isEqualTo(masterKeyHolder.derive(ROTATED_MASTER_KEY));
+        assertThat(organizationKeyRepository.findByOrganization(organization).orElseThrow().getWrappedDek())
+                .isNotEqualTo(wrappedBefore);
+        // The DEK cache was cleared, so this unwraps the stored DEK under the new KEK
+        assertThat(keyManagementService.getDekForOrganization(organization)).isEqualTo(dekBefore);
+
+        byte[] pkcs12 = certificateService.createKeystore(root.getSerialNumber(), "PKCS12");
+        KeyStore keystore = KeyStore.getInstance("PKCS12");
+        keystore.load(new ByteArrayInputStream(pkcs12), "keystorePassword123".toCharArray());
+        String alias = keystore.aliases().nextElement();
+        assertThat(keystore.getKey(alias, "keystorePassword123".toCharArray())).isInstanceOf(PrivateKey.class);
+    }
+}
@@ -0,0 +1,133 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigInteger;
+import java.security.cert.X509Certificate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class OcspServiceTest {
+
+    @Autowired
+    private OcspService ocspService;
+
+    @Autowired
+    private CertificateService certificateService;
+
+    @Autowired
+    private IssuerContextCache issuerContextCache;
+
+    private DigestCalculatorProvider digestCalculatorProvider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder().setProvider("BC").build();
+    }
+
+    @Test
+    void singleRequestsAnswerGoodRevokedAndUnauthorized() throws Exception {
+        Certificate root = TestCertificates.root(certificateService, "OcspOrg");
+        Certificate good = TestCertificates.endEntity(certificateService, root, "good.ocsp.test");
+        Certificate revoked = TestCertificates.endEntity(certificateService, root, "revoked.ocsp.test");
+        certificateService.revokeCertificate(revoked.getSerialNumber());
+
+        assertThat(single(root, serialOf(good)).getCertStatus()).isEqualTo(CertificateStatus.GOOD);
+
+        CertificateStatus revokedStatus = single(root, serialOf(revoked)).getCertStatus();
+        assertThat(revokedStatus).isInstanceOf(RevokedStatus.class);
+        assertThat(((RevokedStatus) revokedStatus).hasRevocationReason()).isFalse();
+
+        OCSPResp unknown = respond(request(certId(root, BigInteger.valueOf(424242))));
+        assertThat(unknown.getStatus()).isEqualTo(OCSPRespBuilder.UNAUTHORIZED);
+    }
+
+    @Test
+    void multiRequestAnswersUnknownPerEntry() throws Exception {
+        Certificate root = TestCertificates.root(certificateService, "OcspMultiOrg");
+        Certificate good = TestCertificates.endEntity(certificateService, root, "good.multi.ocsp.test");
+        Certificate revoked = TestCertificates.endEntity(certificateService, root, "revoked.multi.ocsp.test");
+        certificateService.revokeCertificate(revoked.getSerialNumber());
+        Certificate otherRoot = TestCertificates.root(certificateService, "OcspOtherOrg");
+        Certificate foreign = TestCertificates.endEntity(certificateService, otherRoot, "other.ocsp.test");
+
+        OCSPResp response = respond(request(
+                certId(root, serialOf(good)),
+                certId(root, BigInteger.valueOf(424243)),
+                certId(otherRoot, serialOf(foreign)),
+                certId(root, serialOf(revoked))));
+
+        assertThat(response.getStatus()).isEqualTo(OCSPRespBuilder.SUCCESSFUL);
+        BasicOCSPResp basic = (BasicOCSPResp) response.getResponseObject();
+        assertThat(basic.isSignatureValid(new JcaContentVerifierProviderBuilder().setProvider("BC")
+                .build(issuerCertificate(root).getPublicKey()))).isTrue();
+        SingleResp[] answers = basic.getResponses();
+        assertThat(answers).hasSize(4);
+        assertThat(answers[0].getCertStatus()).isEqualTo(CertificateStatus.GOOD);
+        assertThat(answers[1].getCertStatus()).isInstanceOf(UnknownStatus.class);
+        assertThat(answers[2].getCertStatus()).isInstanceOf(UnknownStatus.class);
+        assertThat(answers[3].getCertStatus()).isInstanceOf(RevokedStatus.class);
+    }
+
+    @Test
+    void latencyPercentilesAreReported() throws Exception {
+        Certificate root = TestCertificates.root(certificateService, "OcspMetricsOrg");
+        Certificate good = TestCertificates.endEntity(certificateService, root, "metrics.ocsp.test");
+        single(root, serialOf(good));
+
+        assertThat(ocspService.getMetrics()).containsKeys("p50Millis", "p99Millis");
+    }
+
+    private SingleResp single(Certificate issuer, BigInteger serial) throws Exception {
+        OCSPResp response = respond(request(certId(issuer, serial)));
+        assertThat(response.getStatus()).isEqualTo(OCSPRespBuilder.SUCCESSFUL);
+        SingleResp[] answers = ((BasicOCSPResp) response.getResponseObject()).getResponses();
+        assertThat(answers).hasSize(1);
+        return answers[0];
+    }
+
+    private OCSPResp respond(byte[] request) throws Exception {
+        return new OCSPResp(ocspService.respond(request).getEncoded());
+    }
+
+    private static byte[] request(CertificateID... certIds) throws Exception {
+        OCSPReqBuilder builder = new OCSPReqBuilder();
+        for (CertificateID certId : certIds) {
+            builder.addRequest(certId);
+        }
+        return builder.build().getEncoded();
+    }
+
+    private CertificateID certId(Certificate issuer, BigInteger serial) throws Exception {
+        return new CertificateID(digestCalculatorProvider.get(CertificateID.HASH_SHA1),
+                new X509CertificateHolder(issuerCertificate(issuer).getEncoded()), serial);
+    }
+
+    private X509Certificate issuerCertificate(Certificate issuer) {
+        return issuerContextCache.get(issuer.getSerialNumber()).getCertificate();
+    }
+
+    private static BigInteger serialOf(Certificate certificate) {
+        return new BigInteger(certificate.getSerialNumber());
+    }
+}
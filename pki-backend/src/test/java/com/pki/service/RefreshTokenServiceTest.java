@@ -0,0 +1,67 @@
+package com.pki.service;
+
+import com.pki.dto.JwtResponse;
+import com.pki.security.JwtTokenProvider;
+import com.pki.security.TokenDenylist;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class RefreshTokenServiceTest {
+
+    // Created by DataInitializer
+    private static final String USERNAME = "admin";
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Test
+    void eachRefreshTokenRotatesOnce() {
+        JwtResponse first = refreshTokenService.issue(USERNAME);
+
+        Optional<JwtResponse> second = refreshTokenService.rotate(first.getRefreshToken());
+        assertThat(second).isPresent();
+        assertThat(second.get().getRefreshToken()).isNotEqualTo(first.getRefreshToken());
+
+        assertThat(refreshTokenService.rotate(second.get().getRefreshToken())).isPresent();
+    }
+
+    @Test
+    void reusedRefreshTokenRevokesItsWholeFamily() {
+        JwtResponse first = refreshTokenService.issue(USERNAME);
+        JwtResponse second = refreshTokenService.rotate(first.getRefreshToken()).orElseThrow();
+        long reuseDetections = (long) refreshTokenService.getMetrics().get("refreshReuseDetections");
+
+        assertThat(refreshTokenService.rotate(first.getRefreshToken())).isEmpty();
+
+        assertThat((long) refreshTokenService.getMetrics().get("refreshReuseDetections")).isEqualTo(reuseDetections + 1);
+        // The legitimate successor and its access token are revoked with the family
+        assertThat(refreshTokenService.rotate(second.getRefreshToken())).isEmpty();
+        assertThat(tokenDenylist.isDenied(tokenProvider.verify(second.getAccessToken()).orElseThrow())).isTrue();
+    }
+
+    @Test
+    void reuseLeavesOtherFamiliesAlone() {
+        JwtResponse leaked = refreshTokenService.issue(USERNAME);
+        JwtResponse otherSession = refreshTokenService.issue(USERNAME);
+        refreshTokenService.rotate(leaked.getRefreshToken()).orElseThrow();
+
+        assertThat(refreshTokenService.rotate(leaked.getRefreshToken())).isEmpty();
+
+        assertThat(tokenDenylist.isDenied(tokenProvider.verify(otherSession.getAccessToken()).orElseThrow())).isFalse();
+        assertThat(refreshTokenService.rotate(otherSession.getRefreshToken())).isPresent();
+    }
+}
@@ -0,0 +1,162 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+import com.pki.repository.CertificateRepository;
+import com.pki.repository.CertificateSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocationIndexTest {
+
+    private static final String ROOT = "1000";
+    private static final String INTERMEDIATE = "2000";
+
+    private CertificateRepository certificateRepository;
+    private RevocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        certificateRepository = mock(CertificateRepository.class);
+        index = new RevocationIndex();
+        ReflectionTestUtils.setField(index, "certificateRepository", certificateRepository);
+        ReflectionTestUtils.setField(index, "loadPageSize", 2);
+    }
+
+    @Test
+    void loadPagesThroughEveryCertificate() {
+        LocalDateTime nextYear = LocalDateTime.now().plusYears(1);
+        List<CertificateSummary> first = List.of(
+                summary(1, ROOT, null, nextYear, false),
+                summary(2, INTERMEDIATE, ROOT, nextYear, false));
+        List<CertificateSummary> second = List.of(
+                summary(5, "3001", INTERMEDIATE, nextYear, true));
+        when(certificateRepository.count()).thenReturn(3L);
+        when(certificateRepository.findSummariesAfter(eq(0L), any(Pageable.class))).thenReturn(first);
+        when(certificateRepository.findSummariesAfter(eq(2L), any(Pageable.class))).thenReturn(second);
+
+        index.load();
+
+        verify(certificateRepository).findSummariesAfter(0L, PageRequest.of(0, 2));
+        verify(certificateRepository).findSummariesAfter(2L, PageRequest.of(0, 2));
+        assertThat(index.getStatus(ROOT)).isEqualTo(RevocationIndex.Status.GOOD);
+        assertThat(index.getStatus(INTERMEDIATE)).isEqualTo(RevocationIndex.Status.GOOD);
+        assertThat(index.getStatus("3001")).isEqualTo(RevocationIndex.Status.REVOKED);
+        assertThat(index.getStatus("9999")).isEqualTo(RevocationIndex.Status.UNKNOWN);
+        assertThat(index.getStatus("not-a-serial")).isEqualTo(RevocationIndex.Status.UNKNOWN);
+        assertThat(index.getMetrics()).containsEntry("entries", 3).containsEntry("issuers", 2);
+    }
+
+    @Test
+    void expiryIsRoundedUpToTheNextMinute() {
+        // Floored to the minute, a certificate valid for two more seconds could already read as expired
+        LocalDateTime inTwoSeconds = at(Instant.now().plusSeconds(2));
+        LocalDateTime oneMinuteAgo = at(Instant.now().minusSeconds(61));
+        loadWith(
+                summary(1, "3001", INTERMEDIATE, inTwoSeconds, false),
+                summary(2, "3002", INTERMEDIATE, oneMinuteAgo, false));
+
+        assertThat(index.getStatus("3001")).isEqualTo(RevocationIndex.Status.GOOD);
+        assertThat(index.getStatus("3002")).isEqualTo(RevocationIndex.Status.EXPIRED);
+    }
+
+    @Test
+    void expiryOnAMinuteBoundaryIsNotRoundedFurther() {
+        // Expired at the start of the current minute; rounding by a full minute would report it good
+        long boundary = Instant.now().getEpochSecond() / 60 * 60;
+        loadWith(summary(1, "3001", INTERMEDIATE, at(Instant.ofEpochSecond(boundary)), false));
+
+        assertThat(index.getStatus("3001")).isEqualTo(RevocationIndex.Status.EXPIRED);
+    }
+
+    @Test
+    void revokedStatusWinsOverExpiry() {
+        loadWith(summary(1, "3001", INTERMEDIATE, LocalDateTime.now().minusDays(1), true));
+
+        assertThat(index.getStatus("3001")).isEqualTo(RevocationIndex.Status.REVOKED);
+    }
+
+    @Test
+    void issuerFilterReportsOtherIssuersAsUnknown() {
+        LocalDateTime nextYear = LocalDateTime.now().plusYears(1);
+        loadWith(
+                summary(1, INTERMEDIATE, ROOT, nextYear, false),
+                summary(2, "3001", INTERMEDIATE, nextYear, false));
+
+        assertThat(index.getStatuses(List.of("3001", INTERMEDIATE), INTERMEDIATE))
+                .containsEntry("3001", RevocationIndex.Status.GOOD)
+                .containsEntry(INTERMEDIATE, RevocationIndex.Status.UNKNOWN);
+        assertThat(index.getStatuses(List.of("3001"), "4242"))
+                .containsEntry("3001", RevocationIndex.Status.UNKNOWN);
+    }
+
+    @Test
+    void issuanceAndRevocationOutsideTransactionApplyImmediately() {
+        loadWith();
+        Certificate issued = certificate("3001", LocalDateTime.now().plusYears(1));
+
+        index.onIssued(List.of(issued));
+        assertThat(index.getStatus("3001")).isEqualTo(RevocationIndex.Status.GOOD);
+
+        index.onRevoked(issued);
+        assertThat(index.getStatus("3001")).isEqualTo(RevocationIndex.Status.REVOKED);
+        assertThat(index.getMetrics()).containsEntry("entries", 1);
+    }
+
+    @Test
+    void revocationOfUnindexedCertificateInsertsIt() {
+        loadWith();
+
+        index.onRevoked(certificate("3001", LocalDateTime.now().plusYears(1)));
+
+        assertThat(index.getStatus("3001")).isEqualTo(RevocationIndex.Status.REVOKED);
+        assertThat(index.getStatuses(List.of("3001"), INTERMEDIATE))
+                .containsEntry("3001", RevocationIndex.Status.REVOKED);
+    }
+
+    private void loadWith(CertificateSummary... summaries) {
+        when(certificateRepository.count()).thenReturn((long) summaries.length);
+        when(certificateRepository.findSummariesAfter(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        when(certificateRepository.findSummariesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(summaries));
+        ReflectionTestUtils.setField(index, "loadPageSize", Math.max(1, summaries.length + 1));
+        index.load();
+    }
+
+    private static LocalDateTime at(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    private static CertificateSummary summary(long id, String serialNumber, String issuerSerialNumber,
+                                              LocalDateTime expiresAt, boolean revoked) {
+        CertificateSummary summary = mock(CertificateSummary.class);
+        when(summary.getId()).thenReturn(id);
+        when(summary.getSerialNumber()).thenReturn(serialNumber);
+        when(summary.getIssuerSerialNumber()).thenReturn(issuerSerialNumber);
+        when(summary.getExpiresAt()).thenReturn(expiresAt);
+        when(summary.isRevoked()).thenReturn(revoked);
+        return summary;
+    }
+
+    private static Certificate certificate(String serialNumber, LocalDateTime expiresAt) {
+        Certificate certificate = new Certificate();
+        certificate.setSerialNumber(serialNumber);
+        certificate.setIssuerSerialNumber(INTERMEDIATE);
+        certificate.setExpiresAt(expiresAt);
+        return certificate;
+    }
+}
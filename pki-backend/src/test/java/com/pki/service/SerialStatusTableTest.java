@@ -0,0 +1,151 @@
+package com.pki.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerialStatusTableTest {
+
+    @Test
+    void putCountsInsertsButNotOverwrites() {
+        SerialStatusTable table = new SerialStatusTable(16);
+
+        table.put(42L, 1, 100, false);
+        table.put(43L, 1, 100, false);
+        assertThat(table.size()).isEqualTo(2);
+
+        table.put(42L, 7, 200, true);
+        assertThat(table.size()).isEqualTo(2);
+        int slot = table.find(42L);
+        assertThat(table.issuerAt(slot)).isEqualTo(7);
+        assertThat(table.expiryMinuteAt(slot)).isEqualTo(200);
+        assertThat(table.isRevoked(slot)).isTrue();
+    }
+
+    @Test
+    void overwriteCanClearRevokedFlag() {
+        SerialStatusTable table = new SerialStatusTable(16);
+        table.put(42L, 1, 100, true);
+        table.put(42L, 1, 100, false);
+        assertThat(table.isRevoked(table.find(42L))).isFalse();
+    }
+
+    @Test
+    void sizesCapacityForLoadFactor() {
+        // ceil(16 / 0.6) = 27, rounded up to a power of two
+        assertThat(new SerialStatusTable(0).capacity()).isEqualTo(32);
+        assertThat(new SerialStatusTable(1000).capacity()).isEqualTo(2048);
+        assertThat(new SerialStatusTable(1000).memoryBytes()).isEqualTo(2048L * 17);
+    }
+
+    @Test
+    void resizeKeepsEveryEntry() {
+        SerialStatusTable table = new SerialStatusTable(0);
+        Random random = new Random(1);
+        List<Long> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long key = random.nextLong();
+            keys.add(key);
+            table.put(key, i, i * 10, i % 3 == 0);
+            assertThat(table.size()).isLessThanOrEqualTo((int) (table.capacity() * 0.6));
+        }
+
+        assertThat(table.size()).isEqualTo(1000);
+        assertThat(table.capacity()).isEqualTo(2048);
+        for (int i = 0; i < keys.size(); i++) {
+            int slot = table.find(keys.get(i));
+            assertThat(slot).isNotEqualTo(SerialStatusTable.NOT_FOUND);
+            assertThat(table.issuerAt(slot)).isEqualTo(i);
+            assertThat(table.expiryMinuteAt(slot)).isEqualTo(i * 10);
+            assertThat(table.isRevoked(slot)).isEqualTo(i % 3 == 0);
+        }
+    }
+
+    @Test
+    void linearProbeWrapsAroundToStartOfTable() {
+        int capacity = new SerialStatusTable(0).capacity();
+        List<Long> lastSlotKeys = new ArrayList<>();
+        for (long key = 1; lastSlotKeys.size() < 3; key++) {
+            SerialStatusTable empty = new SerialStatusTable(0);
+            empty.put(key, 0, 0, false);
+            if (empty.find(key) == capacity - 1) {
+                lastSlotKeys.add(key);
+            }
+        }
+
+        SerialStatusTable table = new SerialStatusTable(0);
+        for (int i = 0; i < lastSlotKeys.size(); i++) {
+            table.put(lastSlotKeys.get(i), i + 1, 0, false);
+        }
+
+        assertThat(table.find(lastSlotKeys.get(0))).isEqualTo(capacity - 1);
+        assertThat(table.find(lastSlotKeys.get(1))).isEqualTo(0);
+        assertThat(table.find(lastSlotKeys.get(2))).isEqualTo(1);
+        for (int i = 0; i < lastSlotKeys.size(); i++) {
+            assertThat(table.issuerAt(table.find(lastSlotKeys.get(i)))).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    void markRevokedOnMissingKeyDoesNotInsert() {
+        SerialStatusTable table = new SerialStatusTable(16);
+        table.put(1L, 0, 0, false);
+
+        assertThat(table.markRevoked(2L)).isFalse();
+        assertThat(table.size()).isEqualTo(1);
+        assertThat(table.find(2L)).isEqualTo(SerialStatusTable.NOT_FOUND);
+
+        assertThat(table.markRevoked(1L)).isTrue();
+        assertThat(table.isRevoked(table.find(1L))).isTrue();
+    }
+
+    @Test
+    void sipHashMatchesReferenceVectors() {
+        // Reference key 00..0f; messages empty and 00..1f
+        long k0 = 0x0706050403020100L;
+        long k1 = 0x0f0e0d0c0b0a0908L;
+        assertThat(SerialStatusTable.sipHash(k0, k1)).isEqualTo(0x726fdb47dd0e0e31L);
+        assertThat(SerialStatusTable.sipHash(k0, k1,
+                0x0706050403020100L, 0x0f0e0d0c0b0a0908L, 0x1716151413121110L, 0x1f1e1d1c1b1a1918L))
+                .isEqualTo(0x7127512f72f27cceL);
+    }
+
+    @Test
+    void fingerprintDependsOnTableKey() {
+        BigInteger serial = new BigInteger(160, new SecureRandom());
+        assertThat(new SerialStatusTable(16, 1, 2).fingerprint(serial))
+                .isEqualTo(new SerialStatusTable(16, 1, 2).fingerprint(serial))
+                .isNotEqualTo(new SerialStatusTable(16, 1, 3).fingerprint(serial));
+    }
+
+    @Test
+    void fingerprintSeesEveryBitLengthAndSign() {
+        SerialStatusTable table = new SerialStatusTable(16);
+        BigInteger low = BigInteger.valueOf(5);
+        assertThat(table.fingerprint(low.setBit(70))).isNotEqualTo(table.fingerprint(low));
+        assertThat(table.fingerprint(low.setBit(150))).isNotEqualTo(table.fingerprint(low));
+        assertThat(table.fingerprint(low.setBit(200))).isNotEqualTo(table.fingerprint(low));
+        // Same low 192 bits in two's complement
+        assertThat(table.fingerprint(BigInteger.ONE.negate()))
+                .isNotEqualTo(table.fingerprint(BigInteger.ONE.shiftLeft(192).subtract(BigInteger.ONE)));
+    }
+
+    @Test
+    void fingerprintsOfRandomSerialsAreDistinct() {
+        SerialStatusTable table = new SerialStatusTable(16);
+        SecureRandom random = new SecureRandom();
+        Set<Long> fingerprints = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            fingerprints.add(table.fingerprint(new BigInteger(160, random)));
+        }
+        assertThat(fingerprints).hasSize(100_000);
+    }
+}
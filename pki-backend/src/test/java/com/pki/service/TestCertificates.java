@@ -0,0 +1,21 @@
+package com.pki.service;
+
+import com.pki.entity.Certificate;
+
+/**
+ * Small EC certificates for the Spring context tests; EC key generation keeps them fast.
+ */
+final class TestCertificates {
+
+    private TestCertificates() {}
+
+    static Certificate root(CertificateService certificateService, String organization) {
+        return certificateService.createSelfSignedCertificate(organization + " Root", organization,
+                "Test", "US", "CA", "San Francisco", 1, Certificate.KeyAlgorithm.EC, 256);
+    }
+
+    static Certificate endEntity(CertificateService certificateService, Certificate issuer, String commonName) {
+        return certificateService.createEndEntityCertificate(commonName, issuer.getOrganization(),
+                "Test", "US", "CA", "San Francisco", 1, issuer.getSerialNumber(), Certificate.KeyAlgorithm.EC, 256);
+    }
+}
@@ -5,7 +5,7 @@ import { useRouter } from 'next/navigation';
 import { useForm } from 'react-hook-form';
 import ProtectedRoute from '@/components/ProtectedRoute';
 import Navbar from '@/components/Navbar';
-import api from '@/lib/api';
+import api, { fetchAllCertificates } from '@/lib/api';
 import { Certificate, CertificateRequest } from '@/types';
 import { ArrowLeft, AlertCircle, CheckCircle } from 'lucide-react';
 
@@ -26,6 +26,7 @@ export default function CreateCertificatePage() {
     defaultValues: {
       validityYears: 1,
       type: 'SELF_SIGNED_ROOT',
+      keyAlgorithm: 'RSA',
     },
   });
 
@@ -37,12 +38,12 @@ export default function CreateCertificatePage() {
 
   const fetchCertificates = async () => {
     try {
-      const response = await api.get('/certificates');
-      // Filter only active certificates that can be issuers
-      const activeCertificates = response.data.filter(
-        (cert: Certificate) => !cert.revoked && (cert.type === 'SELF_SIGNED_ROOT' || cert.type === 'INTERMEDIATE')
-      );
-      setCertificates(activeCertificates);
+      // Only CA certificates can be issuers, so end entities are never fetched
+      const [roots, intermediates] = await Promise.all([
+        fetchAllCertificates('/certificates/type/SELF_SIGNED_ROOT'),
+        fetchAllCertificates('/certificates/type/INTERMEDIATE'),
+      ]);
+      setCertificates([...roots, ...intermediates].filter((cert: Certificate) => !cert.revoked));
     } catch (err) {
       console.error('Failed to load certificates', err);
     }
@@ -250,6 +251,21 @@ export default function CreateCertificatePage() {
                   </div>
                 </div>
 
+                {/* Key Algorithm */}
+                <div>
+                  <label className="block text-sm font-medium text-gray-700">
+                    Key Algorithm
+                  </label>
+                  <select
+                    {...register('keyAlgorithm')}
+                    className="mt-1 block w-full px-3 py-2 border border-gray-300 rounded-md shadow-sm focus:outline-none focus:ring-blue-500 focus:border-blue-500 sm:text-sm"
+                  >
+                    <option value="RSA">RSA 2048</option>
+                    <option value="EC">ECDSA P-256</option>
+                    <option value="ED25519">Ed25519</option>
+                  </select>
+                </div>
+
                 {/* Validity Period */}
                 <div>
                   <label className="block text-sm font-medium text-gray-700">
@@ -4,7 +4,7 @@ import { useEffect, useState } from 'react';
 import { useRouter } from 'next/navigation';
 import ProtectedRoute from '@/components/ProtectedRoute';
 import Navbar from '@/components/Navbar';
-import api from '@/lib/api';
+import api, { fetchCertificatePage } from '@/lib/api';
 import { Certificate } from '@/types';
 import { 
   Award, 
@@ -16,18 +16,28 @@ import {
   Search
 } from 'lucide-react';
 
+const PAGE_SIZE = 50;
+const CERTIFICATE_TYPES = ['SELF_SIGNED_ROOT', 'INTERMEDIATE', 'END_ENTITY'];
+
 export default function CertificatesPage() {
   const [certificates, setCertificates] = useState<Certificate[]>([]);
   const [filteredCertificates, setFilteredCertificates] = useState<Certificate[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | undefined>();
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
   const [searchTerm, setSearchTerm] = useState('');
   const [filterType, setFilterType] = useState('ALL');
   const router = useRouter();
 
+  // Type filters are applied by the server; the status filters and search apply to loaded pages
+  const listPath = CERTIFICATE_TYPES.includes(filterType)
+    ? `/certificates/type/${filterType}`
+    : '/certificates';
+
   useEffect(() => {
     fetchCertificates();
-  }, []);
+  }, [listPath]);
 
   useEffect(() => {
     filterCertificates();
@@ -35,8 +45,9 @@ export default function CertificatesPage() {
 
   const fetchCertificates = async () => {
     try {
-      const response = await api.get('/certificates');
-      setCertificates(response.data);
+      const page = await fetchCertificatePage(listPath, undefined, PAGE_SIZE);
+      setCertificates(page.certificates);
+      setNextCursor(page.nextCursor);
     } catch (err) {
       setError('Failed to load certificates');
     } finally {
@@ -44,18 +55,30 @@ export default function CertificatesPage() {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) {
+      return;
+    }
+    setLoadingMore(true);
+    try {
+      const page = await fetchCertificatePage(listPath, nextCursor, PAGE_SIZE);
+      setCertificates(loaded => [...loaded, ...page.certificates]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      setError('Failed to load certificates');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const filterCertificates = () => {
     let filtered = certificates;
 
-    // Filter by type
-    if (filterType !== 'ALL') {
-      if (filterType === 'ACTIVE') {
-        filtered = filtered.filter(cert => !cert.revoked);
-      } else if (filterType === 'REVOKED') {
-        filtered = filtered.filter(cert => cert.revoked);
-      } else {
-        filtered = filtered.filter(cert => cert.type === filterType);
-      }
+    // Filter by status; type filters already came from the server
+    if (filterType === 'ACTIVE') {
+      filtered = filtered.filter(cert => !cert.revoked);
+    } else if (filterType === 'REVOKED') {
+      filtered = filtered.filter(cert => cert.revoked);
     }
 
     // Filter by search term
@@ -77,7 +100,10 @@ export default function CertificatesPage() {
 
     try {
       await api.post(`/certificates/${serialNumber}/revoke`);
-      fetchCertificates();
+      // Update in place so the pages loaded so far are kept
+      setCertificates(loaded => loaded.map(cert =>
+        cert.serialNumber === serialNumber ? { ...cert, revoked: true, revokedAt: new Date().toISOString() } : cert
+      ));
     } catch (err) {
       setError('Failed to revoke certificate');
     }
@@ -245,7 +271,18 @@ export default function CertificatesPage() {
                 </li>
               ))}
             </ul>
-            {filteredCertificates.length === 0 && (
+            {nextCursor && (
+              <div className="px-6 py-4 border-t border-gray-200 text-center">
+                <button
+                  onClick={loadMore}
+                  disabled={loadingMore}
+                  className="inline-flex items-center px-4 py-2 border border-gray-300 text-sm font-medium rounded-md shadow-sm text-gray-700 bg-white hover:bg-gray-50 focus:outline-none focus:ring-2 focus:ring-offset-2 focus:ring-blue-500 disabled:opacity-50"
+                >
+                  {loadingMore ? 'Loading...' : 'Load more'}
+                </button>
+              </div>
+            )}
+            {filteredCertificates.length === 0 && !nextCursor && (
               <div className="px-6 py-12 text-center">
                 <Award className="mx-auto h-12 w-12 text-gray-400" />
                 <h3 className="mt-2 text-sm font-medium text-gray-900">
@@ -3,12 +3,13 @@
 import { useEffect, useState } from 'react';
 import ProtectedRoute from '@/components/ProtectedRoute';
 import Navbar from '@/components/Navbar';
-import api from '@/lib/api';
-import { Certificate } from '@/types';
+import { fetchCertificateCounts, fetchCertificatePage } from '@/lib/api';
+import { Certificate, CertificateCounts } from '@/types';
 import { Award, AlertCircle, CheckCircle, Clock } from 'lucide-react';
 
 export default function Dashboard() {
   const [certificates, setCertificates] = useState<Certificate[]>([]);
+  const [counts, setCounts] = useState<CertificateCounts | null>(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
 
@@ -18,8 +19,13 @@ export default function Dashboard() {
 
   const fetchCertificates = async () => {
     try {
-      const response = await api.get('/certificates');
-      setCertificates(response.data);
+      // Totals come from the counts endpoint; only the first few certificates are listed
+      const [certificateCounts, page] = await Promise.all([
+        fetchCertificateCounts(30),
+        fetchCertificatePage('/certificates', undefined, 5),
+      ]);
+      setCounts(certificateCounts);
+      setCertificates(page.certificates);
     } catch (err) {
       setError('Failed to load certificates');
     } finally {
@@ -28,15 +34,10 @@ export default function Dashboard() {
   };
 
   const stats = {
-    total: certificates.length,
-    active: certificates.filter(cert => !cert.revoked).length,
-    revoked: certificates.filter(cert => cert.revoked).length,
-    expiringSoon: certificates.filter(cert => {
-      const expiryDate = new Date(cert.expiresAt);
-      const thirtyDaysFromNow = new Date();
-      thirtyDaysFromNow.setDate(thirtyDaysFromNow.getDate() + 30);
-      return expiryDate <= thirtyDaysFromNow && !cert.revoked;
-    }).length,
+    total: counts?.total ?? 0,
+    active: counts?.active ?? 0,
+    revoked: counts?.revoked ?? 0,
+    expiringSoon: counts?.expiringSoon ?? 0,
   };
 
   if (loading) {
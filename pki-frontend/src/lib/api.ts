@@ -1,5 +1,6 @@
 import axios from 'axios';
 import Cookies from 'js-cookie';
+import { Certificate, CertificateCounts, CertificatePage } from '@/types';
 
 const API_URL = process.env.NEXT_PUBLIC_API_URL || 'https://localhost:8443/api';
 
@@ -59,4 +60,31 @@ api.interceptors.response.use(
   }
 );
 
+// One page of the certificate list; pass nextCursor back to get the following page
+export async function fetchCertificatePage(
+  path = '/certificates',
+  cursor?: string,
+  limit = 50
+): Promise<CertificatePage> {
+  const response = await api.get(path, { params: { limit, cursor } });
+  return { certificates: response.data, nextCursor: response.headers['x-next-cursor'] as string | undefined };
+}
+
+// Follows the X-Next-Cursor header through every page; only for short lists such as the CA types
+export async function fetchAllCertificates(path: string, limit = 500) {
+  const certificates: Certificate[] = [];
+  let cursor: string | undefined;
+  do {
+    const page = await fetchCertificatePage(path, cursor, limit);
+    certificates.push(...page.certificates);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return certificates;
+}
+
+export async function fetchCertificateCounts(expiringWithinDays = 30): Promise<CertificateCounts> {
+  const response = await api.get('/certificates/counts', { params: { expiringWithinDays } });
+  return response.data;
+}
+
 export default api;
\ No newline at end of file
@@ -13,7 +13,23 @@ export interface Certificate {
   revoked: boolean;
   revokedAt?: string;
   issuerSerialNumber?: string;
-  certificateData: string;
+  keyAlgorithm: 'RSA' | 'EC' | 'ED25519';
+  keySize: number;
+  certificateData?: string; // Only returned by the single-certificate endpoint
+}
+
+export interface CertificatePage {
+  certificates: Certificate[];
+  nextCursor?: string; // Absent on the last page
+}
+
+export interface CertificateCounts {
+  total: number;
+  active: number;
+  revoked: number;
+  expiringSoon: number;
+  byType: Record<Certificate['type'], number>;
+  revokedByType: Record<Certificate['type'], number>;
 }
 
 export interface CertificateRequest {
@@ -26,6 +42,8 @@ export interface CertificateRequest {
   type: 'SELF_SIGNED_ROOT' | 'INTERMEDIATE' | 'END_ENTITY';
   validityYears: number;
   issuerSerialNumber?: string;
+  keyAlgorithm?: 'RSA' | 'EC' | 'ED25519';
+  keySize?: number;
 }
 
 export interface LoginRequest {